@@ -0,0 +1,89 @@
+package com.example.Meme.Website.Cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the L1 caches of all app nodes coherent. Every write that changes a
+ * cached key publishes "nodeId|key" on a Redis channel; the other nodes drop
+ * that key from their LocalCache. The publisher has already updated its own
+ * copy, so it ignores its own messages. Caches that do not live in LocalCache
+ * can subscribe to a key prefix and get those keys handed to them instead.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "cache:invalidate";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private LocalCache localCache;
+
+    private final Map<String, Consumer<String>> prefixListeners = new ConcurrentHashMap<>();
+
+    // Keys starting with the prefix go to the listener instead of LocalCache
+    public void subscribe(String keyPrefix, Consumer<String> listener) {
+        prefixListeners.put(keyPrefix, listener);
+    }
+
+    public void publish(String key) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, nodeId + "|" + key);
+        } catch (Exception e) {
+            log.error("Error publishing cache invalidation for '{}': {}", key, e.getMessage());
+        }
+    }
+
+    // All keys in one pipelined round-trip instead of one PUBLISH each
+    public void publishAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[] channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.publish(channel, (nodeId + "|" + key).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error publishing cache invalidation for {} keys: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String key = body.substring(separator + 1);
+        for (Map.Entry<String, Consumer<String>> listener : prefixListeners.entrySet()) {
+            if (key.startsWith(listener.getKey())) {
+                listener.getValue().accept(key);
+                return;
+            }
+        }
+        localCache.invalidate(key);
+    }
+}
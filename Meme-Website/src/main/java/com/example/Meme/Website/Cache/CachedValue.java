@@ -0,0 +1,14 @@
+package com.example.Meme.Website.Cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Envelope for entries with a soft TTL; the hard TTL is the Redis expiry of the key itself
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue<T> {
+    private T value;
+    private long refreshAt; // epoch millis after which readers trigger a background refresh
+}
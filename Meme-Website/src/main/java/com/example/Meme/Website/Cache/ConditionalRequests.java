@@ -0,0 +1,45 @@
+package com.example.Meme.Website.Cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET against versions taken from the cache layer. Callers check
+ * before loading anything, so a matching If-None-Match / If-Modified-Since is
+ * answered with a bodiless 304 and the handler should return null.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    public static String etag(String... parts) {
+        return "W/\"" + String.join("-", parts) + "\"";
+    }
+
+    // Content-derived ETag part: SHA-256 of the serialized entity, so unlike a hashCode two versions never collide in practice
+    public static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // lastModified <= 0 means the entity has no timestamp and only the ETag is compared
+    public static boolean isNotModified(WebRequest request, String etag, long lastModified) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            // Spring Security defaults to no-store; clients may keep these bodies as long as they revalidate
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return lastModified > 0 ? request.checkNotModified(etag, lastModified) : request.checkNotModified(etag);
+    }
+}
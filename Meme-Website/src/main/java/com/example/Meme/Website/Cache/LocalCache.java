@@ -0,0 +1,105 @@
+package com.example.Meme.Website.Cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded in-process (L1) cache that sits in front of Redis. Entries are
+ * weighted by their approximate serialized size and expire per namespace,
+ * where the namespace is the key prefix before the first ':' ("meme:123" ->
+ * "meme"). TTLs can be overridden with {@code cache.local.ttl.<namespace>}.
+ *
+ * Values are shared between callers and must be treated as read-only.
+ */
+@Component
+public class LocalCache {
+
+    private static final Map<String, Duration> DEFAULT_TTLS = Map.of(
+            "meme", Duration.ofSeconds(30),
+            "feed", Duration.ofSeconds(5),
+            "response", Duration.ofMinutes(1),
+            "principal", Duration.ofMinutes(1));
+    private static final Duration FALLBACK_TTL = Duration.ofSeconds(10);
+
+    @Value("${cache.local.max-weight-bytes:67108864}") // 64MB
+    private long maxWeightBytes;
+
+    @Autowired
+    private Environment environment;
+
+    private Cache<String, Entry> cache;
+
+    private final Map<String, Long> ttlNanosByNamespace = new ConcurrentHashMap<>();
+
+    private record Entry(Object value, int weight, long ttlNanos) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Returns null on a miss or when the cached value is not of the requested type
+    public <T> T get(String key, Class<T> type) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !type.isInstance(entry.value())) {
+            return null;
+        }
+        return type.cast(entry.value());
+    }
+
+    public void put(String key, Object value, int weight) {
+        if (value == null) {
+            return;
+        }
+        cache.put(key, new Entry(value, Math.max(1, weight), ttlNanosFor(key)));
+    }
+
+    // Local only; use CacheInvalidationBus to reach the other nodes
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll(Collection<String> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    private long ttlNanosFor(String key) {
+        int separator = key.indexOf(':');
+        String namespace = separator > 0 ? key.substring(0, separator) : key;
+        return ttlNanosByNamespace.computeIfAbsent(namespace, ns -> environment.getProperty(
+                "cache.local.ttl." + ns, Duration.class, DEFAULT_TTLS.getOrDefault(ns, FALLBACK_TTL)).toNanos());
+    }
+}
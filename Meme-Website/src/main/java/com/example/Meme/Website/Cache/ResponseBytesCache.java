@@ -0,0 +1,75 @@
+package com.example.Meme.Website.Cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Final response bytes for hot read endpoints, rendered once per version. The
+ * body is serialized to UTF-8 JSON and gzipped a single time and kept in L1, so
+ * a hit only copies bytes to the socket: no Jackson, no compression.
+ *
+ * Keys must identify immutable content (include a version), since an entry is
+ * never invalidated, only aged out.
+ */
+@Component
+public class ResponseBytesCache {
+
+    private record Rendered(byte[] json, byte[] gzip) {
+    }
+
+    @Autowired
+    private LocalCache localCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ResponseEntity<byte[]> respond(String key, WebRequest request, Supplier<?> body) {
+        String cacheKey = "response:" + key;
+        Rendered rendered = localCache.get(cacheKey, Rendered.class);
+        if (rendered == null) {
+            rendered = render(body.get());
+            localCache.put(cacheKey, rendered, rendered.json().length + rendered.gzip().length);
+        }
+
+        boolean gzip = acceptsGzip(request);
+        byte[] bytes = gzip ? rendered.gzip() : rendered.json();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(bytes.length);
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(bytes);
+    }
+
+    private Rendered render(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new Rendered(json, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render response body", e);
+        }
+    }
+
+    private boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
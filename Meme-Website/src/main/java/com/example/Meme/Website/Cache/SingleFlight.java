@@ -0,0 +1,120 @@
+package com.example.Meme.Website.Cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Request coalescing for cache misses. Concurrent callers for the same key on
+ * this node share one in-flight future, and a short Redis lock elects a single
+ * loader across nodes. Losers on other nodes poll the cache until the winner
+ * has written the value, then read it from there.
+ *
+ * The loader is expected to write its result to the cache itself.
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${cache.single-flight.lock-ttl-ms:5000}")
+    private long lockTtlMs;
+
+    @Value("${cache.single-flight.wait-ms:3000}")
+    private long waitMs;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return (T) existing.get(waitMs + lockTtlMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return loader.get();
+            } catch (Exception e) {
+                // The leader failed or is stuck; load for ourselves rather than fail the request
+                return loader.get();
+            }
+        }
+
+        try {
+            T value = loadAcrossNodes(key, cacheLookup, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private <T> T loadAcrossNodes(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        String lockKey = "lock:" + key;
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, Duration.ofMillis(lockTtlMs));
+        } catch (Exception e) {
+            log.error("Error acquiring loader lock '{}', loading without it: {}", lockKey, e.getMessage());
+            return loader.get();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loader.get();
+            } finally {
+                try {
+                    stringRedisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+                } catch (Exception e) {
+                    log.error("Error releasing loader lock '{}': {}", lockKey, e.getMessage());
+                }
+            }
+        }
+
+        // Another node is loading this key: wait for its result to land in the cache
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            T value = cacheLookup.get();
+            if (value != null) {
+                return value;
+            }
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey))) {
+                break; // the other loader finished without caching anything (e.g. nothing to load)
+            }
+        }
+        return loader.get();
+    }
+}
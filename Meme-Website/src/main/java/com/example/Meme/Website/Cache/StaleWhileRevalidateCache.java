@@ -0,0 +1,104 @@
+package com.example.Meme.Website.Cache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.services.RedisService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache entries with a soft and a hard TTL. Before the soft TTL readers get the
+ * cached value. Between soft and hard TTL they still get it immediately while
+ * one background refresh (per key, across nodes) recomputes it. Only a fully
+ * expired or missing entry makes the caller wait, and then through SingleFlight.
+ */
+@Component
+@Slf4j
+public class StaleWhileRevalidateCache {
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("cacheRefreshExecutor")
+    private TaskExecutor refreshExecutor;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public <T> T get(String key, JavaType valueType, Duration softTtl, Duration hardTtl, Supplier<T> loader) {
+        CachedValue<T> entry = getEntry(key, valueType, softTtl, hardTtl, loader);
+        return entry.getValue();
+    }
+
+    // Same as get, but with the envelope: refreshAt is unique per load and serves as the value's version
+    public <T> CachedValue<T> getEntry(String key, JavaType valueType, Duration softTtl, Duration hardTtl,
+            Supplier<T> loader) {
+        JavaType entryType = objectMapper.getTypeFactory().constructParametricType(CachedValue.class, valueType);
+
+        CachedValue<T> entry = redisService.get(key, entryType);
+        if (entry != null) {
+            if (System.currentTimeMillis() >= entry.getRefreshAt()) {
+                refreshInBackground(key, entryType, softTtl, hardTtl, loader);
+            }
+            return entry;
+        }
+
+        return singleFlight.load(key,
+                () -> redisService.get(key, entryType),
+                () -> loadAndStore(key, softTtl, hardTtl, loader));
+    }
+
+    private <T> void refreshInBackground(String key, JavaType entryType, Duration softTtl, Duration hardTtl,
+            Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return; // this node already has a refresh queued or running
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    // Another node may win the lock; we are done once a fresh entry shows up
+                    singleFlight.load(key,
+                            () -> freshEntry(key, entryType),
+                            () -> loadAndStore(key, softTtl, hardTtl, loader));
+                } catch (Exception e) {
+                    log.error("Background refresh of '{}' failed: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            refreshing.remove(key); // executor saturated; a later reader will try again
+        }
+    }
+
+    // Straight to Redis: fills are not broadcast, so the local copy that sent us here is the stale one
+    private <T> CachedValue<T> freshEntry(String key, JavaType entryType) {
+        CachedValue<T> entry = redisService.getRemote(key, entryType);
+        return entry != null && System.currentTimeMillis() < entry.getRefreshAt() ? entry : null;
+    }
+
+    private <T> CachedValue<T> loadAndStore(String key, Duration softTtl, Duration hardTtl, Supplier<T> loader) {
+        T value = loader.get();
+        CachedValue<T> entry = new CachedValue<>(value, System.currentTimeMillis() + softTtl.toMillis());
+        redisService.fill(key, entry, hardTtl.toSeconds(), TimeUnit.SECONDS);
+        return entry;
+    }
+}
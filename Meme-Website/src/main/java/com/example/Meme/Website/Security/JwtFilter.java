@@ -50,17 +50,19 @@ public class JwtFilter extends OncePerRequestFilter {
         UserDetails userDetails = null;
         boolean accessTokenValid = false;
 
-        if (accessToken != null) {
+        // One signature check per token; every later question is answered from the parsed claims
+        ParsedToken parsedAccess = jwtService.parse(accessToken);
+        if (parsedAccess != null) {
             try {
-                username = jwtService.extractUsernameEvenIfExpired(accessToken);
+                username = parsedAccess.subject();
                 userDetails = context.getBean(UserDetailsServiceImpl.class).loadUserByUsername(username);
-                accessTokenValid = jwtService.validateToken(accessToken, userDetails);
+                accessTokenValid = parsedAccess.isValidFor(userDetails);
             } catch (Exception e) {
             }
         }
 
         if (accessTokenValid && username != null) {
-            if (jwtService.willExpireSoon(accessToken, 5)) {
+            if (parsedAccess.expiresWithin(5)) {
                 String newAccessToken = jwtService.generateToken(username, 15, "access_token");
                 cookieUtil.addCookie(response, "access_token", newAccessToken, 15);
             }
@@ -79,16 +81,16 @@ public class JwtFilter extends OncePerRequestFilter {
                 try {
                     userDetails = context.getBean(UserDetailsServiceImpl.class).loadUserByUsername(username);
                     String storedRefreshToken = redisService.getToken("refresh_token", username);
+                    ParsedToken parsedRefresh = jwtService.parse(storedRefreshToken);
 
-                    boolean refreshTokenValid = storedRefreshToken != null &&
-                            jwtService.validateToken(storedRefreshToken, userDetails);
+                    boolean refreshTokenValid = parsedRefresh != null && parsedRefresh.isValidFor(userDetails);
 
                     if (refreshTokenValid) {
 
                         String newAccessToken = jwtService.generateToken(username, 15, "access_token");
                         cookieUtil.addCookie(response, "access_token", newAccessToken, 15);
 
-                        if (jwtService.willExpireSoon(storedRefreshToken, 60 * 24)) {
+                        if (parsedRefresh.expiresWithin(60 * 24)) {
                             String newRefreshToken = jwtService.generateToken(username, 60 * 24 * 7, "refresh_token");
                             redisService.setToken("refresh_token", username, newRefreshToken, 60 * 24 * 7 * 60);
                         }
@@ -0,0 +1,23 @@
+package com.example.Meme.Website.Security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A JWT whose signature has been checked once, with the claims callers need.
+ * Expired tokens are still returned (expired = true) so the filter can read the
+ * subject and fall back to the refresh token.
+ */
+public record ParsedToken(String subject, String type, long expiresAtMillis) {
+
+    public boolean isExpired() {
+        return expiresAtMillis <= System.currentTimeMillis();
+    }
+
+    public boolean isValidFor(UserDetails userDetails) {
+        return !isExpired() && subject != null && subject.equals(userDetails.getUsername());
+    }
+
+    public boolean expiresWithin(int thresholdMinutes) {
+        return expiresAtMillis - System.currentTimeMillis() <= thresholdMinutes * 60 * 1000L;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.Meme.Website.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.Cache.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tokens whose signature this node has already verified, keyed by the SHA-256
+ * of the token so raw tokens are never kept in memory. Entries leave at the
+ * token's own expiry or by LRU once {@code jwt.cache.max-size} is reached.
+ *
+ * Revocation: a revoked digest is written to Redis ({@code jwt:revoked:<digest>},
+ * expiring with the token) and announced on the invalidation bus, which drops
+ * it from every node's cache and adds it to their local revoked set. Redis is
+ * consulted only when a token is verified for the first time on a node, so a
+ * node that missed the announcement still never caches a revoked token.
+ *
+ * When that Redis lookup fails the token is never cached, so it is checked
+ * again on its next request. Whether it is accepted meanwhile is
+ * {@code jwt.revocation.fail-open}: off by default, which refuses it (a
+ * logged-out token must not slip through a Redis hiccup); on, it is served
+ * uncached until Redis answers again.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    public static final String REVOKED_KEY_PREFIX = "jwt:revoked:";
+
+    public enum RemoteStatus { REVOKED, NOT_REVOKED, UNKNOWN }
+
+    @Value("${jwt.cache.max-size:100000}")
+    private long maxSize = 100_000;
+
+    // Longest token we issue (refresh tokens, 7 days); revoked digests can be forgotten after that
+    @Value("${jwt.cache.revoked-retention:P7D}")
+    private Duration revokedRetention = Duration.ofDays(7);
+
+    @Value("${jwt.revocation.fail-open:false}")
+    private boolean failOpen;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    private Cache<String, ParsedToken> verified;
+    private Cache<String, Boolean> revoked;
+
+    @PostConstruct
+    void init() {
+        verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, ParsedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, ParsedToken token, long currentTime) {
+                        long remainingMillis = token.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, ParsedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, ParsedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        revoked = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(revokedRetention)
+                .build();
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(REVOKED_KEY_PREFIX,
+                    key -> forgetLocally(key.substring(REVOKED_KEY_PREFIX.length())));
+        }
+    }
+
+    public String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isRevoked(String digest) {
+        return revoked.getIfPresent(digest) != null;
+    }
+
+    public ParsedToken get(String digest) {
+        return isRevoked(digest) ? null : verified.getIfPresent(digest);
+    }
+
+    public void put(String digest, ParsedToken token) {
+        if (!token.isExpired()) {
+            verified.put(digest, token);
+        }
+    }
+
+    // One Redis lookup the first time this node sees a token; remembered locally when revoked
+    public RemoteStatus remoteStatus(String digest) {
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(REVOKED_KEY_PREFIX + digest))) {
+                revoked.put(digest, Boolean.TRUE);
+                return RemoteStatus.REVOKED;
+            }
+            return RemoteStatus.NOT_REVOKED;
+        } catch (Exception e) {
+            log.error("Error checking token revocation, {} the token: {}", failOpen ? "accepting" : "refusing",
+                    e.getMessage());
+            return RemoteStatus.UNKNOWN;
+        }
+    }
+
+    public boolean isFailOpen() {
+        return failOpen;
+    }
+
+    public void revoke(String digest, long expiresAtMillis) {
+        long remainingMillis = expiresAtMillis - System.currentTimeMillis();
+        forgetLocally(digest);
+        if (remainingMillis <= 0) {
+            return; // already unusable
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + digest, "1", Duration.ofMillis(remainingMillis));
+        } catch (Exception e) {
+            log.error("Error storing token revocation: {}", e.getMessage());
+        }
+        invalidationBus.publish(REVOKED_KEY_PREFIX + digest);
+    }
+
+    private void forgetLocally(String digest) {
+        revoked.put(digest, Boolean.TRUE);
+        verified.invalidate(digest);
+    }
+}
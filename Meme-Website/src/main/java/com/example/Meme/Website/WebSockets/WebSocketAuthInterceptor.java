@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
+import com.example.Meme.Website.Security.ParsedToken;
 import com.example.Meme.Website.services.JWTService;
 import com.example.Meme.Website.services.RedisService;
 import com.example.Meme.Website.services.UserDetailsServiceImpl;
@@ -57,19 +58,20 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
         boolean accessTokenValid = false;
         UserDetails userDetails = null;
 
-        if (accessToken != null) {
+        ParsedToken parsedAccess = jwtService.parse(accessToken);
+        if (parsedAccess != null) {
             try {
-                username = jwtService.extractUsernameEvenIfExpired(accessToken);
+                username = parsedAccess.subject();
                 userDetails = userDetailsServiceImpl.loadUserByUsername(username);
 
-                accessTokenValid = jwtService.validateToken(accessToken, userDetails);
+                accessTokenValid = parsedAccess.isValidFor(userDetails);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
 
         if (accessTokenValid && username != null) {
-            if (jwtService.willExpireSoon(accessToken, 5)) {
+            if (parsedAccess.expiresWithin(5)) {
                 String newAccessToken = jwtService.generateToken(username, 15, "access_token");
                 attributes.put("access_token", newAccessToken);
             } else {
@@ -84,13 +86,14 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
             try {
                 userDetails = userDetailsServiceImpl.loadUserByUsername(username);
                 String refreshToken = redisService.getToken("refresh_token", username);
+                ParsedToken parsedRefresh = jwtService.parse(refreshToken);
 
-                if (refreshToken != null && jwtService.validateToken(refreshToken, userDetails)) {
+                if (parsedRefresh != null && parsedRefresh.isValidFor(userDetails)) {
                     String newAccessToken = jwtService.generateToken(username, 15, "access_token");
                     attributes.put("access_token", newAccessToken);
                     attributes.put("username", username);
 
-                    if (jwtService.willExpireSoon(refreshToken, 60 * 24)) {
+                    if (parsedRefresh.expiresWithin(60 * 24)) {
                         String newRefreshToken = jwtService.generateToken(username, 60 * 24 * 7, "refresh_token");
                         redisService.setToken("refresh_token", username, newRefreshToken, 60 * 24 * 7 * 60);
                     }
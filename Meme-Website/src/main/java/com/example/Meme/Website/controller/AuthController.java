@@ -98,7 +98,8 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        authService.logout(request);
         cookieUtil.deleteCookie(response, "access_token");
 
         return ResponseEntity.ok("Logged Out Successfully");
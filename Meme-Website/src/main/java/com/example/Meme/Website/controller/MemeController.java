@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.Meme.Website.models.Comments;
@@ -37,9 +38,34 @@ public class MemeController {
         return memeService.getUserUploadedMemes(username);
     }
 
+    // Deprecated: capped to the newest memes; clients page through /memes/feed instead
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<Meme>> getAllMemes() {
-        return memeService.getAllMemes();
+    public ResponseEntity<byte[]> getAllMemes(WebRequest webRequest) {
+        return memeService.getAllMemes(webRequest);
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String after,  // Cursor from the previous page
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        return memeService.getFeed(after, limit, webRequest);
+    }
+
+    @GetMapping("/timeline/{userId}")
+    public ResponseEntity<?> getTimeline(
+            @PathVariable String userId,
+            @RequestParam(required = false) String after,  // Cursor from the previous page
+            @RequestParam(defaultValue = "20") int limit) {
+        return memeService.getTimeline(userId, after, limit);
+    }
+
+    @GetMapping("/hot")
+    public ResponseEntity<?> getHotMemes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int limit) {
+        return memeService.getHotMemes(page, limit);
     }
 
     @PostMapping("/{memeId}/like")
@@ -59,9 +85,16 @@ public class MemeController {
                 return memeService.saveMeme(username, memeId, save);
             }
 
+    @PostMapping("/state")
+    public ResponseEntity<?> getMemeStates(
+            @RequestParam String username,
+            @RequestBody List<String> memeIds) { // Ids of the memes on the page being rendered
+        return memeService.getMemeStates(username, memeIds);
+    }
+
     @GetMapping("/memepage/{memeId}")
-    public ResponseEntity<?> getMemeById(@PathVariable String memeId) {
-        return memeService.getMemeById(memeId);
+    public ResponseEntity<?> getMemeById(@PathVariable String memeId, WebRequest webRequest) {
+        return memeService.getMemeById(memeId, webRequest);
     }
 
     @GetMapping("/uploaded")
@@ -69,9 +102,11 @@ public class MemeController {
         return memeService.getUserUploadedMemes(userId);
     }
 
+    // Same deprecated, capped list as GET /memes
+    @Deprecated
     @GetMapping("/saves")
-    public ResponseEntity<List<Meme>> getSavedMemes() {
-        return memeService.getAllMemes();
+    public ResponseEntity<byte[]> getSavedMemes(WebRequest webRequest) {
+        return memeService.getAllMemes(webRequest);
     }
 
     // Upload a meme
@@ -86,13 +121,17 @@ public class MemeController {
     }
 
     @GetMapping("/liked/{username}")
-    public ResponseEntity<?> getLikedMemes(@PathVariable String username) {
-        return memeService.getAllLikedMemes(username);
+    public ResponseEntity<?> getLikedMemes(@PathVariable String username,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return memeService.getAllLikedMemes(username, after, limit);
     }
 
     @GetMapping("saved/{username}")
-    public ResponseEntity<?> getSavedMemes(@PathVariable String username) {
-        return memeService.getAllSavedMemes(username);
+    public ResponseEntity<?> getSavedMemes(@PathVariable String username,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return memeService.getAllSavedMemes(username, after, limit);
     }
 
 
@@ -5,8 +5,10 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.Meme.Website.models.MemeInteraction;
 import com.example.Meme.Website.services.ProfileService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -25,13 +27,47 @@ public class ProfileController {
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<?> userProfile(@PathVariable String userId) {
-        return profileService.userProfile(userId);
+    public ResponseEntity<?> userProfile(@PathVariable String userId, WebRequest webRequest) {
+        return profileService.userProfile(userId, webRequest);
+    }
+
+    @GetMapping("/{userId}/memes")
+    public ResponseEntity<?> getUserMemes(@PathVariable String userId,
+            @RequestParam(required = false) String after,  // Cursor from the previous page
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getUserMemes(userId, after, limit);
+    }
+
+    @GetMapping("/{userId}/liked")
+    public ResponseEntity<?> getLikedMemes(@PathVariable String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getInteractionMemes(userId, MemeInteraction.Kind.LIKE, after, limit);
+    }
+
+    @GetMapping("/{userId}/saved")
+    public ResponseEntity<?> getSavedMemes(@PathVariable String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getInteractionMemes(userId, MemeInteraction.Kind.SAVE, after, limit);
+    }
+
+    @GetMapping("/{userId}/suggestions")
+    public ResponseEntity<?> getSuggestions(@PathVariable String userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getSuggestions(userId, limit);
+    }
+
+    @GetMapping("/{userId}/propagation")
+    public ResponseEntity<?> getPropagationProgress(@PathVariable String userId) {
+        return profileService.getPropagationProgress(userId);
     }
 
     @GetMapping("/{userId}/followers")
-    public ResponseEntity<?> getFollowers(@PathVariable String userId) {
-        return profileService.getFollowers(userId);
+    public ResponseEntity<?> getFollowers(@PathVariable String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getFollowers(userId, after, limit);
     }
 
     @PostMapping("/{userId}/follow/{targetUserId}")
@@ -40,8 +76,10 @@ public class ProfileController {
     }
 
     @GetMapping("/{userId}/following")
-    public ResponseEntity<?> getFollowing(@PathVariable String userId) {
-        return profileService.getFollowing(userId);
+    public ResponseEntity<?> getFollowing(@PathVariable String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return profileService.getFollowing(userId, after, limit);
     }
 
     @PutMapping("/{userId}/update-username")
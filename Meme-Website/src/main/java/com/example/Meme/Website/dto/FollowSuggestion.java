@@ -0,0 +1,17 @@
+package com.example.Meme.Website.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One "people you may know" entry, with the reasons it was suggested
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowSuggestion {
+    private String userId;
+    private String username;
+    private String profilePictureUrl;
+    private int mutualFollows;
+    private int sharedLikes;
+}
@@ -0,0 +1,37 @@
+package com.example.Meme.Website.dto;
+
+import java.util.Date;
+
+import com.example.Meme.Website.models.Meme;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What feeds and lists render for a meme: the card fields plus a comment
+ * count. Comments themselves are only loaded on the meme detail page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemeCard {
+    private String id;
+    private String userId;
+    private String mediaUrl;
+    private String mediaType;
+    private String caption;
+    private String uploader;
+    private int likecount;
+    private int saveCount;
+    private Date memeCreated;
+    private String profilePictureUrl;
+    private int commentCount;
+
+    public static MemeCard from(Meme meme) {
+        return new MemeCard(meme.getId(), meme.getUserId(), meme.getMediaUrl(), meme.getMediaType(),
+                meme.getCaption(), meme.getUploader(), meme.getLikecount(), meme.getSaveCount(),
+                meme.getMemeCreated(), meme.getProfilePictureUrl(),
+                meme.getComments() != null ? meme.getComments().size() : 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.Meme.Website.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What the viewer needs to draw the like / save buttons of one meme
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemeState {
+    private boolean liked;
+    private boolean saved;
+    private int likeCount;
+    private int saveCount;
+}
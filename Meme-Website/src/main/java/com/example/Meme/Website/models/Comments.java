@@ -2,6 +2,8 @@ package com.example.Meme.Website.models;
 
 import java.util.Date;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -9,12 +11,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "Comments")
+@CompoundIndex(name = "author_id_idx", def = "{'userId': 1, '_id': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Comments {
     private String id;
     private String userId;
+    @Indexed
     private String memeId;
     private String username;
     private String text;
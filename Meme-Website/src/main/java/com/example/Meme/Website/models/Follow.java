@@ -0,0 +1,27 @@
+package com.example.Meme.Website.models;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One follow relation; the unique index makes follow / unfollow a single upsert or delete
+@Document(collection = "follows")
+@CompoundIndex(name = "follower_followee_idx", def = "{'followerId': 1, 'followeeId': 1}", unique = true)
+@CompoundIndex(name = "followee_recent_idx", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "follower_recent_idx", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Date createdAt;
+}
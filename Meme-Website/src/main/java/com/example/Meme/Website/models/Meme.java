@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -12,6 +13,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Document(collection = "memes")
+@CompoundIndex(name = "feed_order_idx", def = "{'memeCreated': -1, '_id': -1}")
+@CompoundIndex(name = "author_order_idx", def = "{'UserId': 1, 'memeCreated': -1, '_id': -1}")
+@CompoundIndex(name = "author_id_idx", def = "{'UserId': 1, '_id': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,34 @@
+package com.example.Meme.Website.models;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One like or save of a meme by a user; the unique index makes a toggle a single insert or delete
+@Document(collection = "MemeInteractions")
+@CompoundIndex(name = "user_kind_meme_idx", def = "{'userId': 1, 'kind': 1, 'memeId': 1}", unique = true)
+@CompoundIndex(name = "user_kind_recent_idx", def = "{'userId': 1, 'kind': 1, 'createdAt': -1, '_id': -1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemeInteraction {
+
+    public enum Kind {
+        LIKE, SAVE
+    }
+
+    @Id
+    private String id;
+    private String userId;
+    @Indexed
+    private String memeId;
+    private Kind kind;
+    private Date createdAt;
+}
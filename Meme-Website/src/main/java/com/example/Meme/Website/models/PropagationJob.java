@@ -0,0 +1,43 @@
+package com.example.Meme.Website.models;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Copying one user field (profile picture, ...) into the documents that embed it.
+ * One job per (user, field): a new change restarts it and bumps the generation.
+ * step / lastId say where to resume, the lease which node is on it.
+ */
+@Document(collection = "propagation_jobs")
+@CompoundIndex(name = "user_field_idx", def = "{'userId': 1, 'field': 1}", unique = true)
+@CompoundIndex(name = "status_updated_idx", def = "{'status': 1, 'updatedAt': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropagationJob {
+
+    public enum Status {
+        PENDING, DONE
+    }
+
+    @Id
+    private String id;
+    private String userId;
+    private String field;
+    private long generation;
+    private Status status;
+    private int step;
+    private String lastId;
+    private long processed;
+    private String leaseOwner;
+    private Date leaseUntil;
+    private Date createdAt;
+    private Date updatedAt;
+}
@@ -10,12 +10,21 @@ import java.util.Collections;
 import java.util.Optional;
 
 
+// Only what authentication needs, so it can be cached per username without dragging the user document along
 public class UserPrincipal implements UserDetails {
 
-    private userModel user;
+    private final String userId;
+    private final String username;
+    private final String password;
+
+    public UserPrincipal(String userId, String username, String password) {
+        this.userId = userId;
+        this.username = username;
+        this.password = password;
+    }
 
     public UserPrincipal(userModel user) {
-        this.user = user;
+        this(user.getUserId(), user.getUsername(), user.getPassword());
     }
 
     public static UserPrincipal from(Optional<userModel> optionalUser) {
@@ -30,20 +39,16 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     public String getUserId(){
-        return user.getUserId();
-    }
-
-    public userModel getUser() {
-        return user;
+        return userId;
     }
 
     @Override
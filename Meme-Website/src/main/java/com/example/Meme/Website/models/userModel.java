@@ -32,13 +32,7 @@ public class userModel {
     private Date userUpdated;
     @DBRef(lazy = false)
     private List<Meme> memeList;
-    @DBRef(lazy = false)
-    private List<Meme> LikedMemes;
-    @DBRef(lazy = false)
-    private List<Meme> savedMemes;
     private String profilePictureUrl;
     private Long FollowersCount;
     private Long FollowingCount;
-    private List<FollowersModel> Followers;
-    private List<FollowersModel> Following;
 }
@@ -0,0 +1,19 @@
+package com.example.Meme.Website.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
+
+// Card projections of memes; never resolves the comment DBRefs, so each call is a single round-trip
+public interface MemeCardRepository {
+
+    List<MemeCard> findCardsByIds(Collection<String> ids);
+
+    // Keyset page over (memeCreated desc, _id desc) strictly after the cursor; null cursor = first page
+    List<MemeCard> findFeedCards(PageCursor after, int limit);
+
+    // Same keyset page, restricted to memes uploaded by the given users
+    List<MemeCard> findAuthorCards(Collection<String> authorIds, PageCursor after, int limit);
+}
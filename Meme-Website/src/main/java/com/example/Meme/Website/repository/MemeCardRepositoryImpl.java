@@ -0,0 +1,82 @@
+package com.example.Meme.Website.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.models.Meme;
+
+public class MemeCardRepositoryImpl implements MemeCardRepository {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<MemeCard> findCardsByIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return aggregate(List.of(Aggregation.match(Criteria.where("_id").in(ids)), cardProjection()));
+    }
+
+    @Override
+    public List<MemeCard> findFeedCards(PageCursor after, int limit) {
+        return keysetPage(null, after, limit);
+    }
+
+    @Override
+    public List<MemeCard> findAuthorCards(Collection<String> authorIds, PageCursor after, int limit) {
+        if (authorIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return keysetPage(Criteria.where("UserId").in(authorIds), after, limit);
+    }
+
+    private List<MemeCard> keysetPage(Criteria filter, PageCursor after, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (filter != null) {
+            stages.add(Aggregation.match(filter));
+        }
+        if (after != null) {
+            Date createdAt = new Date(after.getTimestamp());
+            stages.add(Aggregation.match(new Criteria().orOperator(
+                    Criteria.where("memeCreated").lt(createdAt),
+                    new Criteria().andOperator(
+                            Criteria.where("memeCreated").is(createdAt),
+                            Criteria.where("_id").lt(after.getId())))));
+        }
+        stages.add(Aggregation.sort(
+                Sort.by(Sort.Direction.DESC, "memeCreated").and(Sort.by(Sort.Direction.DESC, "_id"))));
+        stages.add(Aggregation.limit(limit));
+        stages.add(cardProjection());
+        return aggregate(stages);
+    }
+
+    private List<MemeCard> aggregate(List<AggregationOperation> stages) {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Meme.class, stages), MemeCard.class)
+                .getMappedResults();
+    }
+
+    // $size over the stored DBRef array counts comments without fetching a single one
+    private ProjectionOperation cardProjection() {
+        return Aggregation.project("mediaUrl", "mediaType", "caption", "uploader", "likecount", "saveCount",
+                "memeCreated", "profilePictureUrl")
+                .and("UserId").as("userId")
+                .and(ArrayOperators.Size.lengthOfArray(
+                        ConditionalOperators.ifNull("comments").then(List.of())))
+                .as("commentCount");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.Meme.Website.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.Meme.Website.models.Follow;
+
+@Repository
+public interface followRepository extends MongoRepository<Follow, String> {
+    boolean existsByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    long deleteByFollowerIdAndFolloweeId(String followerId, String followeeId);
+}
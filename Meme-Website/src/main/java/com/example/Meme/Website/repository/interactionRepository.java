@@ -0,0 +1,21 @@
+package com.example.Meme.Website.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.Meme.Website.models.MemeInteraction;
+
+@Repository
+public interface interactionRepository extends MongoRepository<MemeInteraction, String> {
+    long countByUserIdAndKind(String userId, MemeInteraction.Kind kind);
+
+    long deleteByUserIdAndKindAndMemeId(String userId, MemeInteraction.Kind kind, String memeId);
+
+    @Query(value = "{ 'memeId': ?0 }", fields = "{ 'userId': 1 }")
+    List<MemeInteraction> findUsersByMemeId(String memeId);
+
+    long deleteByMemeId(String memeId);
+}
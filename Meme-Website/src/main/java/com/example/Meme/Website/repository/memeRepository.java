@@ -9,7 +9,7 @@ import org.springframework.stereotype.Repository;
 import com.example.Meme.Website.models.Meme;
 
 @Repository
-public interface memeRepository extends MongoRepository<Meme, String>{
+public interface memeRepository extends MongoRepository<Meme, String>, MemeCardRepository {
     List<Meme> findByUploader(String uploader);
     List<Meme> findByCaption(String regex, String options);
 
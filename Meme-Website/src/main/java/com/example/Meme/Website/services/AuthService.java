@@ -10,6 +10,10 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.example.Meme.Website.Security.CookieUtil;
+import com.example.Meme.Website.Security.ParsedToken;
 import com.example.Meme.Website.dto.AuthRequest;
 import com.example.Meme.Website.dto.AuthResponse;
 import com.example.Meme.Website.dto.PasswordResetRequest;
@@ -53,6 +58,9 @@ public class AuthService {
     @Autowired
     private RedisService redisService;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private ApplicationContext context;
 
@@ -94,13 +102,9 @@ public class AuthService {
             user.setUserCreated(new Date());
             user.setUserUpdated(new Date());
             user.setMemeList(new ArrayList<>());
-            user.setSavedMemes(new ArrayList<>());
-            user.setLikedMemes(new ArrayList<>());
             user.setProfilePictureUrl("");
             user.setFollowersCount(0L);
             user.setFollowingCount(0L);
-            user.setFollowers(new ArrayList<>());
-            user.setFollowing(new ArrayList<>());
 
             userModel savedUser = userRepository.save(user);
 
@@ -229,14 +233,28 @@ public class AuthService {
             return ResponseEntity.badRequest().body("New password cannot be the same as the old password");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        // Only the password is written; a full save would drop fields userModel no longer maps
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getUserId())),
+                new Update().set("password", passwordEncoder.encode(newPassword)), userModel.class);
+        userDetailsService.evict(username);
+        jwtservice.revoke(token); // a reset link works once
 
         log.info("Password reset successful for user: {}", username);
 
         return ResponseEntity.ok("Password reset successful");
     }
 
+    // The access token stays signed until it expires, so it is revoked; the refresh token is simply dropped
+    public void logout(HttpServletRequest request) {
+        String accessToken = jwtservice.extractTokenFromCookies(request);
+        ParsedToken parsed = jwtservice.parse(accessToken);
+        if (parsed != null) {
+            jwtservice.revoke(accessToken);
+            redisService.deleteToken("refresh_token", parsed.subject());
+            log.info("User {} logged out, access token revoked", parsed.subject());
+        }
+    }
+
 
     public void refreshAccessToken(HttpServletRequest request, HttpServletResponse response) throws Exception {
         String accessToken = jwtservice.extractTokenFromCookies(request);
@@ -0,0 +1,199 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.Meme;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind like / save counters. A toggle only does HINCRBY on
+ * {@code counters:{memeId}} and marks the meme dirty; a scheduled flusher moves
+ * the accumulated deltas into Mongo with one unordered bulk write, so a viral
+ * meme costs one $inc per flush interval instead of one per like.
+ *
+ * <p>Handoff is crash-safe: a flush first moves a batch of deltas atomically
+ * into {@code counters:inflight:{flushId}} and only deletes it after the bulk
+ * write succeeded. A batch left behind by a crash is replayed on the next run;
+ * every meme remembers the last flushId applied to it, so the replay skips the
+ * memes that were already written.
+ */
+@Service
+@Slf4j
+public class CounterService {
+
+    public static final String COUNTER_KEY_PREFIX = "counters:";
+    public static final String DIRTY_KEY = "counters:dirty";
+    public static final String INFLIGHT_KEY = "counters:inflight";
+    static final String FLUSH_LOCK_KEY = "lock:counters:flush";
+    static final String LAST_FLUSH_FIELD = "lastCounterFlush";
+
+    // KEYS: counters hash, dirty set. ARGV: memeId, field, delta
+    static final RedisScript<Long> INCREMENT = new DefaultRedisScript<>(
+            "local v = redis.call('HINCRBY', KEYS[1], ARGV[2], ARGV[3]) "
+                    + "redis.call('SADD', KEYS[2], ARGV[1]) "
+                    + "return v",
+            Long.class);
+
+    // KEYS: dirty set, inflight hash, inflight set. ARGV: batch size, counter key prefix, flushId
+    static final RedisScript<Long> CLAIM = new DefaultRedisScript<>(
+            "local ids = redis.call('SPOP', KEYS[1], tonumber(ARGV[1])) "
+                    + "for _, id in ipairs(ids) do "
+                    + "local key = ARGV[2] .. id "
+                    + "local fields = redis.call('HGETALL', key) "
+                    + "for i = 1, #fields, 2 do "
+                    + "redis.call('HINCRBY', KEYS[2], id .. ':' .. fields[i], fields[i + 1]) end "
+                    + "redis.call('DEL', key) end "
+                    + "if #ids > 0 then redis.call('SADD', KEYS[3], ARGV[3]) end "
+                    + "return #ids",
+            Long.class);
+
+    // KEYS: lock. ARGV: token
+    static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    @Value("${counters.flush-batch:1000}")
+    private int flushBatch;
+
+    @Value("${counters.flush-lock-ttl-ms:60000}")
+    private long flushLockTtlMs;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public String counterKey(String memeId) {
+        return COUNTER_KEY_PREFIX + memeId;
+    }
+
+    // Returns the pending (not yet flushed) delta for the field after this increment
+    public long increment(String memeId, String field, long delta) {
+        Long pending = stringRedisTemplate.execute(INCREMENT, List.of(counterKey(memeId), DIRTY_KEY),
+                memeId, field, String.valueOf(delta));
+        return pending != null ? pending : 0;
+    }
+
+    // Drops deltas of a deleted meme; a batch already in flight just updates nothing
+    public void discard(String memeId) {
+        try {
+            stringRedisTemplate.delete(counterKey(memeId));
+            stringRedisTemplate.opsForSet().remove(DIRTY_KEY, memeId);
+        } catch (Exception e) {
+            log.error("Error discarding counters of meme '{}': {}", memeId, e.getMessage());
+        }
+    }
+
+    // One node flushes at a time, so the batches of a meme always reach Mongo in claim order
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:5000}")
+    public void flush() {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, token,
+                    Duration.ofMillis(flushLockTtlMs));
+        } catch (Exception e) {
+            log.error("Error acquiring counter flush lock: {}", e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+
+        try {
+            // Batches left behind by a crashed flusher go first
+            Set<String> leftovers = stringRedisTemplate.opsForSet().members(INFLIGHT_KEY);
+            if (leftovers != null) {
+                for (String flushId : leftovers) {
+                    log.warn("Replaying counter batch '{}' from an interrupted flush", flushId);
+                    apply(flushId);
+                }
+            }
+
+            long claimed;
+            do {
+                String flushId = UUID.randomUUID().toString();
+                Long result = stringRedisTemplate.execute(CLAIM,
+                        List.of(DIRTY_KEY, inflightKey(flushId), INFLIGHT_KEY),
+                        String.valueOf(flushBatch), COUNTER_KEY_PREFIX, flushId);
+                claimed = result != null ? result : 0;
+                if (claimed > 0) {
+                    apply(flushId);
+                }
+            } while (claimed >= flushBatch);
+        } catch (Exception e) {
+            // Whatever was claimed stays in flight and is replayed next run
+            log.error("Counter flush failed: {}", e.getMessage());
+        } finally {
+            try {
+                stringRedisTemplate.execute(RELEASE_LOCK, List.of(FLUSH_LOCK_KEY), token);
+            } catch (Exception e) {
+                log.error("Error releasing counter flush lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void apply(String flushId) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(inflightKey(flushId));
+
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String[] idAndField = entry.getKey().toString().split(":", 2);
+            long delta = Long.parseLong(entry.getValue().toString());
+            if (delta != 0) {
+                deltas.computeIfAbsent(idAndField[0], id -> new HashMap<>()).put(idAndField[1], delta);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Meme.class);
+            deltas.forEach((memeId, fields) -> {
+                Query query = new Query(Criteria.where("_id").is(memeId).and(LAST_FLUSH_FIELD).ne(flushId));
+                Update update = new Update().set(LAST_FLUSH_FIELD, flushId);
+                fields.forEach(update::inc);
+                ops.updateOne(query, update);
+            });
+            ops.execute();
+
+            // Deltas are relative, so a count already low in Mongo can end up below zero; floor it
+            Map<String, List<String>> negative = new HashMap<>();
+            deltas.forEach((memeId, fields) -> fields.forEach((field, delta) -> {
+                if (delta < 0) {
+                    negative.computeIfAbsent(field, f -> new ArrayList<>()).add(memeId);
+                }
+            }));
+            negative.forEach((field, memeIds) -> mongoTemplate.updateMulti(
+                    new Query(Criteria.where("_id").in(memeIds).and(field).lt(0)),
+                    new Update().set(field, 0), Meme.class));
+        }
+
+        stringRedisTemplate.delete(inflightKey(flushId));
+        stringRedisTemplate.opsForSet().remove(INFLIGHT_KEY, flushId);
+        log.debug("Flushed counter batch '{}' for {} memes", flushId, deltas.size());
+    }
+
+    private String inflightKey(String flushId) {
+        return INFLIGHT_KEY + ":" + flushId;
+    }
+}
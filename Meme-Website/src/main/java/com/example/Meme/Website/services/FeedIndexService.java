@@ -0,0 +1,102 @@
+package com.example.Meme.Website.services;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.Cache.SingleFlight;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.models.Meme;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed index kept in a Redis sorted set: member = meme id, score = memeCreated
+ * in epoch millis. Writers touch a single member (O(log n)); readers take one
+ * ZREVRANGEBYSCORE per page. Only the newest {@code feed.index.max-size} memes
+ * are indexed, older pages are served straight from Mongo.
+ */
+@Service
+@Slf4j
+public class FeedIndexService {
+
+    public static final String FEED_KEY = "feed:memes";
+    public static final String FEED_VERSION_KEY = "feed:version";
+
+    @Value("${feed.index.max-size:10000}")
+    private long maxIndexSize;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    public void add(Meme meme) {
+        redisService.zAdd(FEED_KEY, meme.getId(), meme.getMemeCreated().getTime());
+        redisService.zTrim(FEED_KEY, maxIndexSize);
+        redisService.bumpVersion(FEED_VERSION_KEY);
+    }
+
+    public void remove(String memeId) {
+        redisService.zRemove(FEED_KEY, memeId);
+        redisService.bumpVersion(FEED_VERSION_KEY);
+    }
+
+    // Changes whenever a meme enters or leaves the feed; cached feed pages are keyed by it
+    public long version() {
+        return redisService.getVersion(FEED_VERSION_KEY);
+    }
+
+    /**
+     * Returns up to {@code count} index entries strictly after the cursor, newest
+     * first, in the same (memeCreated, _id) order the Mongo feed query uses.
+     */
+    public List<PageCursor> page(PageCursor cursor, int count) {
+        ensureIndex();
+        return redisService.zRevPage(FEED_KEY, cursor, count);
+    }
+
+    public long maxIndexSize() {
+        return maxIndexSize;
+    }
+
+    // One node rebuilds a missing index; concurrent readers wait for it instead of all scanning Mongo
+    private void ensureIndex() {
+        if (redisService.exists(FEED_KEY)) {
+            return;
+        }
+        singleFlight.load(FEED_KEY,
+                () -> redisService.exists(FEED_KEY) ? Boolean.TRUE : null,
+                () -> {
+                    rebuild();
+                    return Boolean.TRUE;
+                });
+    }
+
+    // Loads only id + memeCreated of the newest memes; ZADD is idempotent, so racing rebuilds are harmless
+    public void rebuild() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "memeCreated")).limit((int) maxIndexSize);
+        query.fields().include("_id").include("memeCreated");
+
+        Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (Meme meme : mongoTemplate.find(query, Meme.class)) {
+            if (meme.getMemeCreated() != null) {
+                tuples.add(TypedTuple.of(meme.getId(), (double) meme.getMemeCreated().getTime()));
+            }
+        }
+        redisService.zAddAll(FEED_KEY, tuples);
+        log.info("Rebuilt feed index with {} memes", tuples.size());
+    }
+}
@@ -0,0 +1,483 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact in-memory follow and like graph for "people you may know". User and
+ * meme ids are mapped to dense ints and every adjacency list is a sorted int[]
+ * (followees per user, liked memes per user, likers per meme), so a 2-hop walk
+ * touches only primitive arrays.
+ *
+ * <p>Writers are serialized and replace the one row they change with a new
+ * array; readers never lock. Rows live in {@link AtomicReferenceArray}s, so a
+ * swapped-in row is published by the element write itself and a reader never
+ * sees a row array before its contents. Growing a table copies it into a new
+ * one that replaces the volatile reference; readers still holding the old
+ * table keep a frozen, consistent copy, since writers only touch the current one.
+ */
+public class FollowGraph {
+
+    public record Suggestion(String userId, int mutualFollows, int sharedLikes) {
+        public int score() {
+            return mutualFollows * MUTUAL_WEIGHT + sharedLikes;
+        }
+    }
+
+    static final int MUTUAL_WEIGHT = 2;
+
+    // Memes liked by more users than this say little about taste and would dominate the walk
+    static final int MAX_LIKERS_PER_MEME = 1_000;
+
+    // Upper bound on 2-hop entries visited per query, so a user following hubs still answers in milliseconds
+    static final int MAX_SCANNED = 1_000_000;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<String, Integer> userIndex;
+    private final Map<String, Integer> memeIndex;
+    private volatile String[] userIds;
+    private volatile AtomicReferenceArray<int[]> following;
+    private volatile AtomicReferenceArray<int[]> likes;
+    private volatile AtomicReferenceArray<int[]> likers;
+    private int userCount;
+    private int memeCount;
+
+    public FollowGraph() {
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new String[16], new int[16][], new int[16][],
+                new int[16][], 0, 0);
+    }
+
+    private FollowGraph(Map<String, Integer> userIndex, Map<String, Integer> memeIndex, String[] userIds,
+            int[][] following, int[][] likes, int[][] likers, int userCount, int memeCount) {
+        this.userIndex = userIndex;
+        this.memeIndex = memeIndex;
+        this.userIds = userIds;
+        this.following = new AtomicReferenceArray<>(following);
+        this.likes = new AtomicReferenceArray<>(likes);
+        this.likers = new AtomicReferenceArray<>(likers);
+        this.userCount = userCount;
+        this.memeCount = memeCount;
+    }
+
+    public int userCount() {
+        return userIndex.size();
+    }
+
+    // ---- Incremental updates ----
+
+    public synchronized boolean follow(String followerId, String followeeId) {
+        int follower = internUser(followerId);
+        int followee = internUser(followeeId);
+        AtomicReferenceArray<int[]> rows = following;
+        int[] row = insert(row(rows, follower), followee);
+        if (row == null) {
+            return false;
+        }
+        rows.set(follower, row);
+        return true;
+    }
+
+    public synchronized boolean unfollow(String followerId, String followeeId) {
+        Integer follower = userIndex.get(followerId);
+        Integer followee = userIndex.get(followeeId);
+        if (follower == null || followee == null) {
+            return false;
+        }
+        AtomicReferenceArray<int[]> rows = following;
+        int[] row = remove(row(rows, follower), followee);
+        if (row == null) {
+            return false;
+        }
+        rows.set(follower, row);
+        return true;
+    }
+
+    public synchronized void like(String userId, String memeId, boolean add) {
+        int user = internUser(userId);
+        int meme = internMeme(memeId);
+        AtomicReferenceArray<int[]> userRows = likes;
+        AtomicReferenceArray<int[]> memeRows = likers;
+        int[] userRow = add ? insert(row(userRows, user), meme) : remove(row(userRows, user), meme);
+        int[] memeRow = add ? insert(row(memeRows, meme), user) : remove(row(memeRows, meme), user);
+        if (userRow != null) {
+            userRows.set(user, userRow);
+        }
+        if (memeRow != null) {
+            memeRows.set(meme, memeRow);
+        }
+    }
+
+    // The meme id stays mapped; its row is just emptied
+    public synchronized void removeMeme(String memeId) {
+        Integer meme = memeIndex.get(memeId);
+        if (meme == null) {
+            return;
+        }
+        AtomicReferenceArray<int[]> userRows = likes;
+        AtomicReferenceArray<int[]> memeRows = likers;
+        for (int user : row(memeRows, meme)) {
+            int[] userRow = remove(row(userRows, user), meme);
+            if (userRow != null) {
+                userRows.set(user, userRow);
+            }
+        }
+        memeRows.set(meme, EMPTY);
+    }
+
+    // ---- Queries ----
+
+    /**
+     * Users the given user does not follow yet, ranked by how many of their
+     * followees follow them (weighted {@link #MUTUAL_WEIGHT}) plus how many
+     * not-too-popular memes both liked.
+     */
+    public List<Suggestion> suggest(String userId, int limit) {
+        Integer boxed = userIndex.get(userId);
+        if (boxed == null || limit <= 0) {
+            return List.of();
+        }
+        int user = boxed;
+        // Ids first: a user interned after this read can show up in the rows but not in ids, and is skipped
+        String[] ids = userIds;
+        AtomicReferenceArray<int[]> followingRows = following;
+        AtomicReferenceArray<int[]> likeRows = likes;
+        AtomicReferenceArray<int[]> likerRows = likers;
+
+        int[] mine = row(followingRows, user);
+        Counter counter = new Counter(64);
+        int budget = MAX_SCANNED;
+
+        // Mutual count in the high half, shared likes in the low half
+        for (int followee : mine) {
+            int[] theirs = row(followingRows, followee);
+            for (int i = 0; i < theirs.length && budget > 0; i++, budget--) {
+                int candidate = theirs[i];
+                if (candidate != user && known(ids, candidate) && Arrays.binarySearch(mine, candidate) < 0) {
+                    counter.add(candidate, 1L << 32);
+                }
+            }
+        }
+        for (int meme : row(likeRows, user)) {
+            int[] others = row(likerRows, meme);
+            if (others.length > MAX_LIKERS_PER_MEME) {
+                continue;
+            }
+            for (int i = 0; i < others.length && budget > 0; i++, budget--) {
+                int candidate = others[i];
+                if (candidate != user && known(ids, candidate) && Arrays.binarySearch(mine, candidate) < 0) {
+                    counter.add(candidate, 1L);
+                }
+            }
+        }
+
+        if (counter.size == 0) {
+            return List.of();
+        }
+
+        // Bounded min-heap of (score, candidate) packed into longs
+        long[] heap = new long[Math.min(limit, counter.size)];
+        int heapSize = 0;
+        for (int slot = 0; slot < counter.keys.length; slot++) {
+            int candidate = counter.keys[slot];
+            if (candidate < 0) {
+                continue;
+            }
+            long counts = counter.values[slot];
+            int score = (int) (counts >>> 32) * MUTUAL_WEIGHT + (int) counts;
+            long packed = ((long) score << 32) | candidate;
+            if (heapSize < heap.length) {
+                heap[heapSize++] = packed;
+                siftUp(heap, heapSize - 1);
+            } else if (packed > heap[0]) {
+                heap[0] = packed;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Arrays.sort(heap, 0, heapSize);
+        List<Suggestion> suggestions = new ArrayList<>(heapSize);
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int candidate = (int) heap[i];
+            long counts = counter.get(candidate);
+            suggestions.add(new Suggestion(ids[candidate], (int) (counts >>> 32), (int) counts));
+        }
+        return suggestions;
+    }
+
+    private static boolean known(String[] ids, int user) {
+        return user < ids.length && ids[user] != null;
+    }
+
+    // ---- Bulk load ----
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /*
+     * Collects edges as parallel int lists and lays out every row in one pass at the end,
+     * instead of growing millions of small arrays one insert at a time.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> users = new HashMap<>();
+        private final Map<String, Integer> memes = new HashMap<>();
+        private final List<String> userIds = new ArrayList<>();
+        private final IntList followers = new IntList();
+        private final IntList followees = new IntList();
+        private final IntList likeUsers = new IntList();
+        private final IntList likeMemes = new IntList();
+
+        public Builder addFollow(String followerId, String followeeId) {
+            followers.add(user(followerId));
+            followees.add(user(followeeId));
+            return this;
+        }
+
+        public Builder addLike(String userId, String memeId) {
+            likeUsers.add(user(userId));
+            likeMemes.add(memes.computeIfAbsent(memeId, id -> memes.size()));
+            return this;
+        }
+
+        private int user(String userId) {
+            Integer index = users.get(userId);
+            if (index == null) {
+                index = users.size();
+                users.put(userId, index);
+                userIds.add(userId);
+            }
+            return index;
+        }
+
+        public FollowGraph build() {
+            int userCount = users.size();
+            int memeCount = memes.size();
+            int userCapacity = Math.max(16, userCount + userCount / 4);
+            int memeCapacity = Math.max(16, memeCount + memeCount / 4);
+            return new FollowGraph(new ConcurrentHashMap<>(users), new ConcurrentHashMap<>(memes),
+                    userIds.toArray(new String[userCapacity]),
+                    rows(followers, followees, userCapacity),
+                    rows(likeUsers, likeMemes, userCapacity),
+                    rows(likeMemes, likeUsers, memeCapacity),
+                    userCount, memeCount);
+        }
+
+        private static int[][] rows(IntList from, IntList to, int capacity) {
+            int[] degree = new int[capacity];
+            for (int i = 0; i < from.size; i++) {
+                degree[from.values[i]]++;
+            }
+            int[][] rows = new int[capacity][];
+            for (int i = 0; i < capacity; i++) {
+                rows[i] = degree[i] == 0 ? EMPTY : new int[degree[i]];
+            }
+            int[] filled = new int[capacity];
+            for (int i = 0; i < from.size; i++) {
+                int row = from.values[i];
+                rows[row][filled[row]++] = to.values[i];
+            }
+            for (int i = 0; i < capacity; i++) {
+                rows[i] = sortedUnique(rows[i]);
+            }
+            return rows;
+        }
+    }
+
+    // ---- Internals ----
+
+    private int internUser(String userId) {
+        Integer index = userIndex.get(userId);
+        if (index != null) {
+            return index;
+        }
+        int user = userCount++;
+        if (user >= userIds.length) {
+            int capacity = userIds.length * 2;
+            following = grow(following, capacity);
+            likes = grow(likes, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+        }
+        String[] ids = userIds;
+        ids[user] = userId;
+        userIds = ids;
+        userIndex.put(userId, user);
+        return user;
+    }
+
+    private int internMeme(String memeId) {
+        Integer index = memeIndex.get(memeId);
+        if (index != null) {
+            return index;
+        }
+        int meme = memeCount++;
+        if (meme >= likers.length()) {
+            likers = grow(likers, likers.length() * 2);
+        }
+        memeIndex.put(memeId, meme);
+        return meme;
+    }
+
+    private static int[] row(AtomicReferenceArray<int[]> rows, int index) {
+        int[] row = index < rows.length() ? rows.get(index) : null;
+        return row != null ? row : EMPTY;
+    }
+
+    // A new table rather than a resized one, so readers holding the old table never see it change
+    private static AtomicReferenceArray<int[]> grow(AtomicReferenceArray<int[]> rows, int capacity) {
+        int[][] copy = new int[capacity][];
+        for (int i = 0; i < rows.length(); i++) {
+            copy[i] = rows.get(i);
+        }
+        return new AtomicReferenceArray<>(copy);
+    }
+
+    // New row with value added, or null when it was already there
+    private static int[] insert(int[] row, int value) {
+        int position = Arrays.binarySearch(row, value);
+        if (position >= 0) {
+            return null;
+        }
+        position = -position - 1;
+        int[] copy = new int[row.length + 1];
+        System.arraycopy(row, 0, copy, 0, position);
+        copy[position] = value;
+        System.arraycopy(row, position, copy, position + 1, row.length - position);
+        return copy;
+    }
+
+    // New row without value, or null when it was not there
+    private static int[] remove(int[] row, int value) {
+        int position = Arrays.binarySearch(row, value);
+        if (position < 0) {
+            return null;
+        }
+        if (row.length == 1) {
+            return EMPTY;
+        }
+        int[] copy = new int[row.length - 1];
+        System.arraycopy(row, 0, copy, 0, position);
+        System.arraycopy(row, position + 1, copy, position, row.length - position - 1);
+        return copy;
+    }
+
+    private static int[] sortedUnique(int[] row) {
+        if (row.length < 2) {
+            return row;
+        }
+        Arrays.sort(row);
+        int unique = 1;
+        for (int i = 1; i < row.length; i++) {
+            if (row[i] != row[unique - 1]) {
+                row[unique++] = row[i];
+            }
+        }
+        return unique == row.length ? row : Arrays.copyOf(row, unique);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = tmp;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            long tmp = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = tmp;
+            index = smallest;
+        }
+    }
+
+    // Open-addressing int -> long map for the 2-hop counts; no boxing, one probe sequence per hit
+    private static final class Counter {
+        int[] keys;
+        long[] values;
+        int size;
+
+        Counter(int capacity) {
+            keys = new int[capacity];
+            values = new long[capacity];
+            Arrays.fill(keys, -1);
+        }
+
+        void add(int key, long delta) {
+            int slot = find(keys, key);
+            if (keys[slot] < 0) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = find(keys, key);
+                }
+            }
+            values[slot] += delta;
+        }
+
+        long get(int key) {
+            int slot = find(keys, key);
+            return keys[slot] == key ? values[slot] : 0;
+        }
+
+        private static int find(int[] keys, int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) >>> 1 & mask;
+            while (keys[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            Arrays.fill(keys, -1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] >= 0) {
+                    int slot = find(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.Follow;
+import com.example.Meme.Website.models.MemeInteraction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link FollowGraph} of every follow and like edge in memory for
+ * suggestions. The graph is streamed from Mongo on start and rebuilt every
+ * {@code graph.rebuild-interval-ms}; in between, follows and likes made through
+ * this node are applied as they happen. Changes that arrive while a rebuild
+ * is running are replayed onto the new graph before it is swapped in. Changes
+ * made on other nodes show up with the next rebuild.
+ */
+@Service
+@Slf4j
+public class FollowGraphService {
+
+    @Value("${graph.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile FollowGraph graph = new FollowGraph();
+
+    // Guards graph updates together with the replay log, so none is lost across a swap
+    private final Object lock = new Object();
+    private List<Consumer<FollowGraph>> replay;
+
+    public List<FollowGraph.Suggestion> suggest(String userId, int limit) {
+        return graph.suggest(userId, limit);
+    }
+
+    public void onFollow(String followerId, String followeeId, boolean add) {
+        apply(g -> {
+            if (add) {
+                g.follow(followerId, followeeId);
+            } else {
+                g.unfollow(followerId, followeeId);
+            }
+        });
+    }
+
+    public void onLike(String userId, String memeId, boolean add) {
+        apply(g -> g.like(userId, memeId, add));
+    }
+
+    public void onMemeRemoved(String memeId) {
+        apply(g -> g.removeMeme(memeId));
+    }
+
+    private void apply(Consumer<FollowGraph> change) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            change.accept(graph);
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${graph.rebuild-interval-ms:900000}",
+            fixedDelayString = "${graph.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            if (replay != null) {
+                return; // a rebuild is already running
+            }
+            replay = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        FollowGraph fresh;
+        try {
+            fresh = read();
+        } catch (Exception e) {
+            log.error("Error rebuilding the follow graph, keeping the current one: {}", e.getMessage());
+            synchronized (lock) {
+                replay = null;
+            }
+            return;
+        }
+        synchronized (lock) {
+            replay.forEach(change -> change.accept(fresh));
+            replay = null;
+            graph = fresh;
+        }
+        log.info("Follow graph rebuilt with {} users in {} ms", fresh.userCount(),
+                System.currentTimeMillis() - start);
+    }
+
+    // Streams only the id fields of every edge; nothing is held but the graph being built
+    private FollowGraph read() {
+        FollowGraph.Builder builder = FollowGraph.builder();
+
+        Query follows = new Query();
+        follows.fields().include("followerId").include("followeeId").exclude("_id");
+        try (Stream<Follow> edges = mongoTemplate.stream(follows, Follow.class)) {
+            edges.forEach(edge -> builder.addFollow(edge.getFollowerId(), edge.getFolloweeId()));
+        }
+
+        Query likes = new Query(Criteria.where("kind").is(MemeInteraction.Kind.LIKE));
+        likes.fields().include("userId").include("memeId").exclude("_id");
+        try (Stream<MemeInteraction> edges = mongoTemplate.stream(likes, MemeInteraction.class)) {
+            edges.forEach(edge -> builder.addLike(edge.getUserId(), edge.getMemeId()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.Meme.Website.services;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.models.Follow;
+
+/**
+ * One-off move of the legacy embedded Followers / Following lists on user
+ * documents into follows edges. Both lists are read, since either side may hold
+ * a relation the other lost; the unique index folds the duplicates. The
+ * counters already on the user documents are kept as they are.
+ */
+@Component
+public class FollowMigrationJob extends LegacyEdgeMigration {
+
+    private static final String LEGACY_FOLLOWERS = "Followers";
+    private static final String LEGACY_FOLLOWING = "Following";
+
+    public FollowMigrationJob(@Value("${migration.follows.enabled:true}") boolean enabled,
+            @Value("${migration.follows.batch-size:200}") int batchSize) {
+        super("follow lists", "lock:migration:follows", enabled, batchSize, Follow.class,
+                LEGACY_FOLLOWERS + ".userId", LEGACY_FOLLOWING + ".userId");
+    }
+
+    @Override
+    protected int addEdges(BulkOperations bulk, String userId, Document legacy) {
+        return addEdges(bulk, userId, legacy.getList(LEGACY_FOLLOWING, Document.class), true)
+                + addEdges(bulk, userId, legacy.getList(LEGACY_FOLLOWERS, Document.class), false);
+    }
+
+    // The lists are in follow order, so spacing createdAt by a millisecond keeps that order in the edges
+    private int addEdges(BulkOperations bulk, String userId, List<Document> relations, boolean outgoing) {
+        if (relations == null) {
+            return 0;
+        }
+        long base = System.currentTimeMillis() - relations.size();
+        int count = 0;
+        for (int i = 0; i < relations.size(); i++) {
+            Object otherId = relations.get(i).get("userId");
+            if (otherId == null || otherId.toString().equals(userId)) {
+                continue;
+            }
+            String followerId = outgoing ? userId : otherId.toString();
+            String followeeId = outgoing ? otherId.toString() : userId;
+            Query edge = new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+            bulk.upsert(edge, new Update().setOnInsert("createdAt", new Date(base + i)));
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.dto.CursorPage;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.models.Follow;
+import com.example.Meme.Website.models.FollowersModel;
+import com.example.Meme.Website.models.userModel;
+import com.example.Meme.Website.repository.followRepository;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Follow relations stored as (followerId, followeeId, createdAt) edges instead
+ * of embedded lists on both user documents. Follow and unfollow are one upsert
+ * or delete on the unique (followerId, followeeId) index plus an $inc of the
+ * two counters; neither user document is read or rewritten. Pages are read
+ * newest first through the matching recent index and carry only ids, the names
+ * and pictures are looked up per page, so a rename or new picture never has to
+ * touch the edges.
+ */
+@Service
+public class FollowService {
+
+    @Autowired
+    private followRepository followRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FollowMigrationJob migrationJob;
+
+    // Returns true when the edge was created, false when the user already followed
+    public boolean follow(String followerId, String followeeId) {
+        migrateUsers(followerId, followeeId);
+        Query edge = new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+        UpdateResult result = mongoTemplate.upsert(edge, new Update().setOnInsert("createdAt", new Date()),
+                Follow.class);
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+        incrementCount(followerId, "FollowingCount", 1);
+        incrementCount(followeeId, "FollowersCount", 1);
+        return true;
+    }
+
+    // Returns true when the edge was removed, false when the user did not follow
+    public boolean unfollow(String followerId, String followeeId) {
+        migrateUsers(followerId, followeeId);
+        if (followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) == 0) {
+            return false;
+        }
+        incrementCount(followerId, "FollowingCount", -1);
+        incrementCount(followeeId, "FollowersCount", -1);
+        return true;
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
+    }
+
+    // Users following userId, newest first
+    public CursorPage<FollowersModel> followers(String userId, PageCursor cursor, int pageSize) {
+        return page("followeeId", userId, "followerId", cursor, pageSize);
+    }
+
+    // Users userId follows, newest first
+    public CursorPage<FollowersModel> following(String userId, PageCursor cursor, int pageSize) {
+        return page("followerId", userId, "followeeId", cursor, pageSize);
+    }
+
+    public List<String> followerIds(String userId) {
+        return ids("followeeId", userId, "followerId");
+    }
+
+    public List<String> followeeIds(String userId) {
+        return ids("followerId", userId, "followeeId");
+    }
+
+    // Either side's legacy list may hold the relation, so both are moved before the edge is touched
+    private void migrateUsers(String followerId, String followeeId) {
+        migrationJob.migrateUser(followerId);
+        migrationJob.migrateUser(followeeId);
+    }
+
+    private void incrementCount(String userId, String field, long delta) {
+        Criteria criteria = Criteria.where("_id").is(userId);
+        if (delta < 0) {
+            criteria.and(field).gt(0); // never below zero, as the old Math.max guard
+        }
+        mongoTemplate.updateFirst(new Query(criteria), new Update().inc(field, delta), userModel.class);
+    }
+
+    // Keyset-paginated over (createdAt, _id) by followee_recent_idx / follower_recent_idx
+    private CursorPage<FollowersModel> page(String ownerField, String userId, String otherField, PageCursor cursor,
+            int pageSize) {
+        Query query = new Query(Criteria.where(ownerField).is(userId));
+        if (cursor != null) {
+            Date createdAt = new Date(cursor.getTimestamp());
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    new Criteria().andOperator(
+                            Criteria.where("createdAt").is(createdAt),
+                            Criteria.where("_id").lt(cursor.getId()))));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.limit(pageSize + 1);
+
+        List<Follow> edges = mongoTemplate.find(query, Follow.class);
+        boolean hasMore = edges.size() > pageSize;
+        List<Follow> pageEdges = hasMore ? edges.subList(0, pageSize) : edges;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Follow last = pageEdges.get(pageEdges.size() - 1);
+            nextCursor = PageCursor.encode(last.getCreatedAt().getTime(), last.getId());
+        }
+
+        boolean followers = "followerId".equals(otherField);
+        List<String> userIds = pageEdges.stream()
+                .map(edge -> followers ? edge.getFollowerId() : edge.getFolloweeId()).toList();
+        Map<String, userModel> users = profiles(userIds);
+
+        List<FollowersModel> items = new ArrayList<>();
+        for (Follow edge : pageEdges) {
+            userModel user = users.get(followers ? edge.getFollowerId() : edge.getFolloweeId());
+            if (user != null) { // the account was deleted after the edge was read
+                items.add(new FollowersModel(edge.getId(), user.getUserId(), user.getUsername(),
+                        user.getProfilePictureUrl(), false));
+            }
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    // Name and picture of one page of users in a single $in query
+    public Map<String, userModel> profiles(List<String> userIds) {
+        Map<String, userModel> users = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return users;
+        }
+        Query query = new Query(Criteria.where("_id").in(userIds));
+        query.fields().include("username").include("profilePictureUrl");
+        for (userModel user : mongoTemplate.find(query, userModel.class)) {
+            users.put(user.getUserId(), user);
+        }
+        return users;
+    }
+
+    // Reads only the other side's id of each edge
+    private List<String> ids(String ownerField, String userId, String otherField) {
+        Query query = new Query(Criteria.where(ownerField).is(userId));
+        query.fields().include(otherField).exclude("_id");
+        List<String> ids = new ArrayList<>();
+        for (Follow edge : mongoTemplate.find(query, Follow.class)) {
+            ids.add("followerId".equals(otherField) ? edge.getFollowerId() : edge.getFolloweeId());
+        }
+        return ids;
+    }
+}
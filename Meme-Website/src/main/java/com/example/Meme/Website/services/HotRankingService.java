@@ -0,0 +1,138 @@
+package com.example.Meme.Website.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trending ranking kept in a Redis sorted set. Every like, save or comment adds
+ * {@code weight * e^((now - epoch) / tau)} to the meme's score with one ZINCRBY,
+ * which ranks memes by exponentially decayed engagement without ever touching
+ * the older events again. The growth factor is brought back down by a periodic
+ * rebase that scales the whole set by {@code e^(-(now - epoch) / tau)} and moves
+ * the epoch to now; the ordering does not change.
+ */
+@Service
+@Slf4j
+public class HotRankingService {
+
+    public static final String HOT_KEY = "hot:memes";
+    public static final String HOT_EPOCH_KEY = "hot:epoch";
+
+    // KEYS: ranking, epoch. ARGV: member, weight, now, tau (ms), max size
+    static final RedisScript<Long> INCREMENT_SCORE = new DefaultRedisScript<>(
+            "local epoch = tonumber(redis.call('GET', KEYS[2])) "
+                    + "if not epoch then epoch = tonumber(ARGV[3]) redis.call('SET', KEYS[2], ARGV[3]) end "
+                    + "local weight = tonumber(ARGV[2]) "
+                    + "if weight < 0 and not redis.call('ZSCORE', KEYS[1], ARGV[1]) then return 0 end "
+                    + "local delta = weight * math.exp((tonumber(ARGV[3]) - epoch) / tonumber(ARGV[4])) "
+                    + "local score = tonumber(redis.call('ZINCRBY', KEYS[1], delta, ARGV[1])) "
+                    + "if score <= 0 then redis.call('ZREM', KEYS[1], ARGV[1]) end "
+                    + "local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[5]) "
+                    + "if excess > 0 then redis.call('ZREMRANGEBYRANK', KEYS[1], 0, excess - 1) end "
+                    + "return 1",
+            Long.class);
+
+    // KEYS: ranking, epoch. ARGV: now, tau (ms), prune threshold
+    static final RedisScript<Long> REBASE = new DefaultRedisScript<>(
+            "local epoch = tonumber(redis.call('GET', KEYS[2])) "
+                    + "if not epoch then redis.call('SET', KEYS[2], ARGV[1]) return 0 end "
+                    + "local factor = math.exp((epoch - tonumber(ARGV[1])) / tonumber(ARGV[2])) "
+                    + "if redis.call('EXISTS', KEYS[1]) == 1 then "
+                    + "redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', factor) "
+                    + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3]) end "
+                    + "redis.call('SET', KEYS[2], ARGV[1]) "
+                    + "return 1",
+            Long.class);
+
+    @Value("${hot.half-life-ms:21600000}")
+    private long halfLifeMs;
+
+    @Value("${hot.max-size:100000}")
+    private long maxSize;
+
+    @Value("${hot.prune-below:0.01}")
+    private double pruneBelow;
+
+    @Value("${hot.weight.upload:1.0}")
+    private double uploadWeight;
+
+    @Value("${hot.weight.like:1.0}")
+    private double likeWeight;
+
+    @Value("${hot.weight.save:2.0}")
+    private double saveWeight;
+
+    @Value("${hot.weight.comment:3.0}")
+    private double commentWeight;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisService redisService;
+
+    // New memes start with a small score so they can surface before anyone reacts
+    public void onUpload(String memeId) {
+        addScore(memeId, uploadWeight);
+    }
+
+    public void onLike(String memeId, int delta) {
+        addScore(memeId, delta * likeWeight);
+    }
+
+    public void onSave(String memeId, int delta) {
+        addScore(memeId, delta * saveWeight);
+    }
+
+    public void onComment(String memeId) {
+        addScore(memeId, commentWeight);
+    }
+
+    public void remove(String memeId) {
+        redisService.zRemove(HOT_KEY, memeId);
+    }
+
+    // Meme ids ranked from hottest, offset-paginated since scores move between requests anyway
+    public List<String> page(int page, int count) {
+        long start = (long) page * count;
+        return redisService.zRevRange(HOT_KEY, start, start + count - 1);
+    }
+
+    private void addScore(String memeId, double weight) {
+        if (weight == 0) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(INCREMENT_SCORE, List.of(HOT_KEY, HOT_EPOCH_KEY), memeId,
+                    String.valueOf(weight), String.valueOf(System.currentTimeMillis()), String.valueOf(tauMs()),
+                    String.valueOf(maxSize));
+        } catch (Exception e) {
+            log.error("Error updating hot score of meme '{}': {}", memeId, e.getMessage());
+        }
+    }
+
+    // Idempotent across nodes: a second run right after the first scales by ~1
+    @Scheduled(fixedDelayString = "${hot.rebase-interval-ms:3600000}")
+    public void rebase() {
+        try {
+            stringRedisTemplate.execute(REBASE, List.of(HOT_KEY, HOT_EPOCH_KEY),
+                    String.valueOf(System.currentTimeMillis()), String.valueOf(tauMs()), String.valueOf(pruneBelow));
+        } catch (Exception e) {
+            log.error("Error rebasing hot ranking: {}", e.getMessage());
+        }
+    }
+
+    // Mean lifetime of the decay; a score halves every halfLifeMs
+    private double tauMs() {
+        return halfLifeMs / Math.log(2);
+    }
+}
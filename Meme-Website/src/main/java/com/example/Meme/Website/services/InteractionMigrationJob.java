@@ -0,0 +1,57 @@
+package com.example.Meme.Website.services;
+
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.example.Meme.Website.models.MemeInteraction;
+import com.mongodb.DBRef;
+
+/**
+ * One-off move of the legacy LikedMemes / savedMemes DBRef arrays on user
+ * documents into MemeInteractions edges.
+ */
+@Component
+public class InteractionMigrationJob extends LegacyEdgeMigration {
+
+    private static final String LEGACY_LIKES = "LikedMemes";
+    private static final String LEGACY_SAVES = "savedMemes";
+
+    public InteractionMigrationJob(@Value("${migration.interactions.enabled:true}") boolean enabled,
+            @Value("${migration.interactions.batch-size:200}") int batchSize) {
+        super("likes/saves", "lock:migration:interactions", enabled, batchSize, MemeInteraction.class,
+                LEGACY_LIKES, LEGACY_SAVES);
+    }
+
+    @Override
+    protected int addEdges(BulkOperations bulk, String userId, Document legacy) {
+        return addEdges(bulk, userId, legacy.getList(LEGACY_LIKES, Object.class), MemeInteraction.Kind.LIKE)
+                + addEdges(bulk, userId, legacy.getList(LEGACY_SAVES, Object.class), MemeInteraction.Kind.SAVE);
+    }
+
+    // The arrays are in insertion order, so spacing createdAt by a millisecond keeps that order in the edges
+    private int addEdges(BulkOperations bulk, String userId, List<Object> refs, MemeInteraction.Kind kind) {
+        if (refs == null) {
+            return 0;
+        }
+        long base = System.currentTimeMillis() - refs.size();
+        int count = 0;
+        for (int i = 0; i < refs.size(); i++) {
+            if (!(refs.get(i) instanceof DBRef ref)) {
+                continue;
+            }
+            Query edge = new Query(Criteria.where("userId").is(userId).and("kind").is(kind)
+                    .and("memeId").is(ref.getId().toString()));
+            bulk.upsert(edge, new Update().setOnInsert("createdAt", new Date(base + i)));
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.dto.CursorPage;
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.models.MemeInteraction;
+import com.example.Meme.Website.models.userModel;
+import com.example.Meme.Website.repository.interactionRepository;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Likes and saves stored as (userId, memeId, kind, createdAt) edges instead of
+ * DBRef arrays on the user document, so a user document stays the same size no
+ * matter how much its owner likes. The unique index on (userId, kind, memeId)
+ * turns every toggle into one insert or one delete.
+ */
+@Service
+public class InteractionService {
+
+    private static final String SET_SENTINEL = "-";
+
+    @Value("${interactions.set-ttl-minutes:60}")
+    private long setTtlMinutes;
+
+    @Autowired
+    private interactionRepository interactionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private FollowGraphService followGraphService;
+
+    @Autowired
+    private InteractionMigrationJob migrationJob;
+
+    // Returns +1 / -1 when the edge was created or removed, 0 when it already was as requested
+    public int toggle(String userId, String memeId, MemeInteraction.Kind kind, boolean add) {
+        migrationJob.migrateUser(userId);
+        int delta;
+        if (!add) {
+            delta = interactionRepository.deleteByUserIdAndKindAndMemeId(userId, kind, memeId) > 0 ? -1 : 0;
+        } else {
+            // An upsert rather than insert-and-catch: a duplicate key error would abort the surrounding transaction
+            Query edge = new Query(Criteria.where("userId").is(userId).and("kind").is(kind).and("memeId").is(memeId));
+            UpdateResult result = mongoTemplate.upsert(edge, new Update().setOnInsert("createdAt", new Date()),
+                    MemeInteraction.class);
+            delta = result.getUpsertedId() != null ? 1 : 0;
+        }
+        if (delta != 0) {
+            redisService.sUpdateIfExists(setKey(userId, kind), memeId, add);
+            if (kind == MemeInteraction.Kind.LIKE) {
+                followGraphService.onLike(userId, memeId, add);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * The subset of {@code memeIds} the user has liked (or saved). Answered by one
+     * SMISMEMBER against a cached set of the user's meme ids; on a miss the edges
+     * are read once, the set is warmed for the next page and the answer computed
+     * from what was read.
+     */
+    public Set<String> memeIdsAmong(String userId, MemeInteraction.Kind kind, List<String> memeIds) {
+        String key = setKey(userId, kind);
+        Set<String> cached = redisService.sMembersAmong(key, memeIds);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<String> all = memeIds(userId, kind);
+        List<String> members = new ArrayList<>(all);
+        members.add(SET_SENTINEL); // an empty Redis set does not exist, which would read as a miss
+        redisService.sAddAll(key, members, TimeUnit.MINUTES.toSeconds(setTtlMinutes));
+
+        Set<String> found = new HashSet<>(all);
+        found.retainAll(memeIds);
+        return found;
+    }
+
+    // Newest first, keyset-paginated over (createdAt, _id) by user_kind_recent_idx
+    public CursorPage<MemeCard> page(String userId, MemeInteraction.Kind kind, PageCursor cursor, int pageSize) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("kind").is(kind));
+        if (cursor != null) {
+            Date createdAt = new Date(cursor.getTimestamp());
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    new Criteria().andOperator(
+                            Criteria.where("createdAt").is(createdAt),
+                            Criteria.where("_id").lt(cursor.getId()))));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.limit(pageSize + 1);
+
+        List<MemeInteraction> edges = mongoTemplate.find(query, MemeInteraction.class);
+        boolean hasMore = edges.size() > pageSize;
+        List<MemeInteraction> pageEdges = hasMore ? edges.subList(0, pageSize) : edges;
+
+        String nextCursor = null;
+        if (hasMore) {
+            MemeInteraction last = pageEdges.get(pageEdges.size() - 1);
+            nextCursor = PageCursor.encode(last.getCreatedAt().getTime(), last.getId());
+        }
+        List<String> memeIds = pageEdges.stream().map(MemeInteraction::getMemeId).toList();
+        return new CursorPage<>(redisService.getMemeCards(memeIds), nextCursor, hasMore);
+    }
+
+    // Every meme id of one kind, newest first; reads only the memeId of each edge
+    public List<String> memeIds(String userId, MemeInteraction.Kind kind) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("kind").is(kind))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.fields().include("memeId");
+        List<String> ids = new ArrayList<>();
+        for (MemeInteraction edge : mongoTemplate.find(query, MemeInteraction.class)) {
+            ids.add(edge.getMemeId());
+        }
+        return ids;
+    }
+
+    public long count(String userId, MemeInteraction.Kind kind) {
+        return interactionRepository.countByUserIdAndKind(userId, kind);
+    }
+
+    // Drops every edge of a deleted meme and returns the users whose lists changed
+    public List<String> removeMeme(String memeId) {
+        List<String> userIds = interactionRepository.findUsersByMemeId(memeId).stream()
+                .map(MemeInteraction::getUserId).distinct().toList();
+        interactionRepository.deleteByMemeId(memeId);
+        followGraphService.onMemeRemoved(memeId);
+        for (String userId : userIds) {
+            for (MemeInteraction.Kind kind : MemeInteraction.Kind.values()) {
+                redisService.sUpdateIfExists(setKey(userId, kind), memeId, false);
+            }
+        }
+        return userIds;
+    }
+
+    private String setKey(String userId, MemeInteraction.Kind kind) {
+        return "interactions:" + kind.name().toLowerCase() + ":" + userId;
+    }
+
+    // username -> userId through the unique username index, reading nothing else of the document
+    public String userIdFor(String username) {
+        Query query = new Query(Criteria.where("username").is(username));
+        query.fields().include("_id");
+        userModel user = mongoTemplate.findOne(query, userModel.class);
+        return user != null ? user.getUserId() : null;
+    }
+}
@@ -2,17 +2,24 @@ package com.example.Meme.Website.services;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.example.Meme.Website.Security.ParsedToken;
+import com.example.Meme.Website.Security.VerifiedTokenCache;
+
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
@@ -25,6 +32,81 @@ public class JWTService {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokens;
+
+    // Both are immutable and thread-safe; building them per call decoded the secret every time
+    private SecretKey key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .setAllowedClockSkewSeconds(60)
+                .build();
+    }
+
+    /**
+     * Verifies the signature once and returns the claims callers need, or null
+     * when the token is malformed, not signed by us or revoked, or when Redis
+     * could not say whether it is revoked and {@code jwt.revocation.fail-open}
+     * is off. Expired tokens are returned too; check {@link ParsedToken#isExpired()}. A token seen
+     * before on this node is answered from the verified-token cache without
+     * any HMAC or JSON work.
+     */
+    public ParsedToken parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        String digest = verifiedTokens.digest(token);
+        ParsedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        if (verifiedTokens.isRevoked(digest)) {
+            return null;
+        }
+
+        ParsedToken parsed = verify(token);
+        if (parsed != null && !parsed.isExpired()) {
+            switch (verifiedTokens.remoteStatus(digest)) {
+                case REVOKED:
+                    return null;
+                case UNKNOWN:
+                    // Left uncached, so the next request asks Redis again
+                    return verifiedTokens.isFailOpen() ? parsed : null;
+                default:
+                    verifiedTokens.put(digest, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    // Refuses the token from now on, on every node, until it would have expired anyway
+    public void revoke(String token) {
+        ParsedToken parsed = parse(token);
+        if (parsed != null) {
+            verifiedTokens.revoke(verifiedTokens.digest(token), parsed.expiresAtMillis());
+        }
+    }
+
+    // Full signature check and claims parsing, no caching
+    ParsedToken verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            claims = e.getClaims(); // thrown only after the signature checked out
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        return new ParsedToken(claims.getSubject(), claims.get("type", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
     public String generateToken(String username, long expiryMinutes, String tokenType) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("type", tokenType);
@@ -38,8 +120,7 @@ public class JWTService {
     }
 
     private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return key;
     }
 
     public String extractUserName(String token) {
@@ -52,25 +133,12 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .setAllowedClockSkewSeconds(60)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        ParsedToken parsed = parse(token);
+        return parsed != null && parsed.isValidFor(userDetails);
     }
 
     public String extractTokenFromCookies(HttpServletRequest request) {
@@ -85,21 +153,8 @@ public class JWTService {
     }
 
     public boolean willExpireSoon(String token, int thresholdMinutes) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Date expirationDate = claims.getExpiration();
-            long currentTimeMillis = System.currentTimeMillis();
-            long thresholdMillis = thresholdMinutes * 60 * 1000L;
-
-            return expirationDate.getTime() - currentTimeMillis <= thresholdMillis;
-        } catch (Exception e) {
-            return true;
-        }
+        ParsedToken parsed = parse(token);
+        return parsed == null || parsed.expiresWithin(thresholdMinutes);
     }
 
     public String extractUsernameEvenIfExpired(String token) {
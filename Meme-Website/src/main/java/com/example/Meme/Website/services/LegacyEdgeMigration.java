@@ -0,0 +1,204 @@
+package com.example.Meme.Website.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.Meme.Website.models.userModel;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One-off move of legacy arrays on user documents into an edge collection;
+ * subclasses say which arrays and turn them into edge upserts.
+ *
+ * <p>Each user is claimed with one findAndModify that unsets the arrays and
+ * returns them, and the edges are built only from what the claim returned.
+ * Claim and edges commit in one transaction, joining the caller's when there
+ * is one, so no reader ever sees the arrays gone without their edges. Two
+ * callers claiming the same user write the same document, so the later one
+ * fails with a write conflict instead of copying arrays the other already moved;
+ * a like or unfollow made after a user's migration can never be undone by it.
+ *
+ * <p>The batch pass runs on the scheduler, off the startup thread, and on one
+ * node at a time behind a Redis lock; other nodes only migrate users lazily.
+ */
+@Slf4j
+public abstract class LegacyEdgeMigration {
+
+    static final Duration LOCK_TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    protected MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String name;
+    private final String lockKey;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Class<?> edgeType;
+    private final String[] legacyPaths;
+    private final String[] legacyFields;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Set once nothing is left to move; after that migrateUser costs nothing
+    private volatile boolean finished;
+
+    /**
+     * @param legacyPaths what to read of the legacy arrays, e.g. {@code Followers.userId};
+     *                    the part before the first dot is the array that gets unset
+     */
+    protected LegacyEdgeMigration(String name, String lockKey, boolean enabled, int batchSize, Class<?> edgeType,
+            String... legacyPaths) {
+        this.name = name;
+        this.lockKey = lockKey;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.edgeType = edgeType;
+        this.legacyPaths = legacyPaths;
+        this.legacyFields = Arrays.stream(legacyPaths).map(path -> path.split("\\.", 2)[0]).distinct()
+                .toArray(String[]::new);
+    }
+
+    // Adds the upserts for one claimed user; legacy is the user document as it was before the claim
+    protected abstract int addEdges(BulkOperations bulk, String userId, Document legacy);
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            taskScheduler.schedule(this::migrate, Instant.now());
+        }
+    }
+
+    void migrate() {
+        String users = mongoTemplate.getCollectionName(userModel.class);
+        if (!mongoTemplate.exists(new Query(legacyCriteria()), users)) {
+            finished = true;
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, LOCK_TTL))) {
+                log.info("{} migration is running on another node; migrating users here as they act", name);
+                return;
+            }
+        } catch (Exception e) {
+            log.error("Error acquiring {} migration lock: {}", name, e.getMessage());
+            return;
+        }
+
+        try {
+            long migrated = 0;
+            while (true) {
+                // Raw documents: the arrays are no longer mapped on userModel
+                Query query = new Query(legacyCriteria()).limit(batchSize);
+                query.fields().include("_id");
+                List<Document> batch = mongoTemplate.find(query, Document.class, users);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                int moved = 0;
+                for (Document user : batch) {
+                    try {
+                        claimAndMove(user.get("_id"));
+                        moved++;
+                    } catch (Exception e) {
+                        // Usually a user acting at this very moment, who then migrates themselves
+                        log.warn("Skipped {} of user '{}': {}", name, user.get("_id"), e.getMessage());
+                    }
+                }
+                if (moved == 0) {
+                    log.error("{} migration stopped: a whole batch failed", name);
+                    return;
+                }
+                migrated += moved;
+                stringRedisTemplate.expire(lockKey, LOCK_TTL);
+                log.info("Migrated {} of {} users so far", name, migrated);
+            }
+            finished = true;
+            log.info("✅ {} migration finished for {} users", name, migrated);
+        } catch (Exception e) {
+            // Whatever is left is picked up lazily, or by the next start
+            log.error("{} migration stopped: {}", name, e.getMessage());
+        } finally {
+            try {
+                stringRedisTemplate.execute(CounterService.RELEASE_LOCK, List.of(lockKey), token);
+            } catch (Exception e) {
+                log.error("Error releasing {} migration lock: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Moves one user's arrays ahead of the batch pass. Call it before changing
+     * the user's edges, inside the same transaction.
+     */
+    public void migrateUser(String userId) {
+        if (!enabled || finished) {
+            return;
+        }
+        claimAndMove(ObjectId.isValid(userId) ? new ObjectId(userId) : userId);
+    }
+
+    private void claimAndMove(Object id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Query query = new Query(new Criteria().andOperator(Criteria.where("_id").is(id), legacyCriteria()));
+            Update update = new Update();
+            for (String path : legacyPaths) {
+                query.fields().include(path);
+            }
+            for (String field : legacyFields) {
+                update.unset(field);
+            }
+            Document user = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(false), Document.class,
+                    mongoTemplate.getCollectionName(userModel.class));
+            if (user == null) {
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, edgeType);
+            if (addEdges(bulk, user.get("_id").toString(), user) > 0) {
+                bulk.execute();
+            }
+        });
+    }
+
+    private Criteria legacyCriteria() {
+        return new Criteria().orOperator(Arrays.stream(legacyFields)
+                .map(field -> Criteria.where(field).exists(true))
+                .toArray(Criteria[]::new));
+    }
+}
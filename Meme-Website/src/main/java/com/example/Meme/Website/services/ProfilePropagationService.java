@@ -0,0 +1,257 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.models.Comments;
+import com.example.Meme.Website.models.Meme;
+import com.example.Meme.Website.models.PropagationJob;
+import com.example.Meme.Website.models.userModel;
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background copy of a changed user field (profile picture, username) into the
+ * memes and comments that embed it. The request only updates the user document
+ * and enqueues a job; a scheduled worker walks the owner's documents in _id
+ * order, one updateMulti per chunk with a short pause in between, and records
+ * where it stopped after every chunk.
+ *
+ * <p>Every chunk writes the value the user document holds at that moment, not
+ * the value that triggered the job, so jobs are idempotent and a stale run can
+ * never overwrite a newer change. A node that dies mid-job just lets its lease
+ * expire and the next node resumes from the recorded position; a change made
+ * while a job runs bumps its generation and the running worker starts over.
+ */
+@Service
+@Slf4j
+public class ProfilePropagationService {
+
+    private record Target(Class<?> entity, String ownerField, String field) {
+    }
+
+    // User field -> where it is copied to. Owner fields are backed by the author_id_idx indexes
+    private static final Map<String, List<Target>> TARGETS = Map.of(
+            "profilePictureUrl", List.of(
+                    new Target(Meme.class, "UserId", "profilePictureUrl"),
+                    new Target(Comments.class, "userId", "ProfilePictureUrl")),
+            "username", List.of(
+                    new Target(Meme.class, "UserId", "uploader"),
+                    new Target(Comments.class, "userId", "username")));
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${propagation.chunk-size:500}")
+    private int chunkSize;
+
+    // Pause between chunks so a rename of a prolific user does not crowd out request traffic
+    @Value("${propagation.pause-ms:50}")
+    private long pauseMs;
+
+    @Value("${propagation.lease-ms:60000}")
+    private long leaseMs;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RedisService redisService;
+
+    // (Re)starts propagation of one field; a job already running for it restarts from the first chunk
+    public void enqueue(String userId, String field) {
+        if (!TARGETS.containsKey(field)) {
+            throw new IllegalArgumentException("Nothing to propagate for field " + field);
+        }
+        Date now = new Date();
+        mongoTemplate.upsert(
+                new Query(Criteria.where("userId").is(userId).and("field").is(field)),
+                new Update()
+                        .set("status", PropagationJob.Status.PENDING)
+                        .set("step", 0)
+                        .unset("lastId")
+                        .set("processed", 0L)
+                        .set("updatedAt", now)
+                        .inc("generation", 1)
+                        .setOnInsert("createdAt", now),
+                PropagationJob.class);
+    }
+
+    // Progress of the user's jobs, for the client to show while a change is spreading
+    public List<Map<String, Object>> progress(String userId) {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (PropagationJob job : mongoTemplate.find(new Query(Criteria.where("userId").is(userId)),
+                PropagationJob.class)) {
+            List<Target> targets = TARGETS.getOrDefault(job.getField(), List.of());
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("field", job.getField());
+            progress.put("status", job.getStatus());
+            progress.put("collection", job.getStep() < targets.size()
+                    ? mongoTemplate.getCollectionName(targets.get(job.getStep()).entity())
+                    : null);
+            progress.put("step", job.getStep());
+            progress.put("steps", targets.size());
+            progress.put("processed", job.getProcessed());
+            progress.put("updatedAt", job.getUpdatedAt());
+            jobs.add(progress);
+        }
+        return jobs;
+    }
+
+    @Scheduled(fixedDelayString = "${propagation.poll-interval-ms:1000}")
+    public void poll() {
+        PropagationJob job;
+        while ((job = claim()) != null) {
+            try {
+                run(job);
+            } catch (Exception e) {
+                // The lease runs out and the job resumes from its last recorded chunk
+                log.error("Propagation of '{}' for user '{}' failed: {}", job.getField(), job.getUserId(),
+                        e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private PropagationJob claim() {
+        Date now = new Date();
+        Query query = new Query(Criteria.where("status").is(PropagationJob.Status.PENDING)
+                .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"));
+        Update update = new Update()
+                .set("leaseOwner", nodeId)
+                .set("leaseUntil", new Date(now.getTime() + leaseMs));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                PropagationJob.class);
+    }
+
+    private void run(PropagationJob job) {
+        List<Target> targets = TARGETS.getOrDefault(job.getField(), List.of());
+        while (true) {
+            if (job.getStep() >= targets.size()) {
+                if (complete(job)) {
+                    log.info("✅ Propagated '{}' of user '{}' to {} documents", job.getField(), job.getUserId(),
+                            job.getProcessed());
+                    return;
+                }
+            } else {
+                processChunk(job, targets.get(job.getStep()));
+                if (saveProgress(job)) {
+                    log.debug("Propagating '{}' of user '{}': step {}/{}, {} documents so far", job.getField(),
+                            job.getUserId(), job.getStep(), targets.size(), job.getProcessed());
+                    if (!throttle()) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            // Restarted by a newer change, or the lease was lost
+            job = mongoTemplate.findById(job.getId(), PropagationJob.class);
+            if (job == null || !nodeId.equals(job.getLeaseOwner())) {
+                return;
+            }
+        }
+    }
+
+    // Returns false when the worker is being shut down; the job resumes elsewhere once the lease runs out
+    private boolean throttle() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Advances job.step / lastId / processed in memory; saveProgress persists them
+    private void processChunk(PropagationJob job, Target target) {
+        Query idQuery = new Query(Criteria.where(target.ownerField()).is(job.getUserId()));
+        if (job.getLastId() != null) {
+            idQuery.addCriteria(Criteria.where("_id").gt(toId(job.getLastId())));
+        }
+        idQuery.with(Sort.by(Sort.Direction.ASC, "_id")).limit(chunkSize);
+        idQuery.fields().include("_id");
+        List<String> ids = mongoTemplate.find(idQuery, Document.class, mongoTemplate.getCollectionName(target.entity()))
+                .stream().map(doc -> doc.get("_id").toString()).toList();
+
+        if (ids.isEmpty()) {
+            job.setStep(job.getStep() + 1);
+            job.setLastId(null);
+            return;
+        }
+
+        Object value = currentValue(job.getUserId(), job.getField());
+        UpdateResult result = mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids).and(target.field()).ne(value)),
+                new Update().set(target.field(), value), target.entity());
+        if (target.entity() == Meme.class) {
+            redisService.evictMemes(ids);
+        }
+        job.setLastId(ids.get(ids.size() - 1));
+        job.setProcessed(job.getProcessed() + result.getModifiedCount());
+    }
+
+    private Object currentValue(String userId, String field) {
+        Query query = new Query(Criteria.where("_id").is(toId(userId)));
+        query.fields().include(field);
+        Document user = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(userModel.class));
+        return user != null ? user.get(field) : null;
+    }
+
+    // Raw Document queries skip the id conversion the entity mapping would do
+    private Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    // Only lands while this node still holds the lease and nobody restarted the job
+    private boolean saveProgress(PropagationJob job) {
+        Update update = new Update()
+                .set("step", job.getStep())
+                .set("processed", job.getProcessed())
+                .set("leaseUntil", new Date(System.currentTimeMillis() + leaseMs))
+                .set("updatedAt", new Date());
+        if (job.getLastId() != null) {
+            update.set("lastId", job.getLastId());
+        } else {
+            update.unset("lastId");
+        }
+        return mongoTemplate.updateFirst(ownedBy(job), update, PropagationJob.class).getMatchedCount() > 0;
+    }
+
+    private boolean complete(PropagationJob job) {
+        Update update = new Update()
+                .set("status", PropagationJob.Status.DONE)
+                .set("processed", job.getProcessed())
+                .set("updatedAt", new Date())
+                .unset("leaseOwner")
+                .unset("leaseUntil");
+        return mongoTemplate.updateFirst(ownedBy(job), update, PropagationJob.class).getMatchedCount() > 0;
+    }
+
+    private Query ownedBy(PropagationJob job) {
+        return new Query(Criteria.where("_id").is(job.getId())
+                .and("leaseOwner").is(nodeId)
+                .and("generation").is(job.getGeneration()));
+    }
+}
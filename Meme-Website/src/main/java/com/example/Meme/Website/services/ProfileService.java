@@ -1,5 +1,6 @@
 package com.example.Meme.Website.services;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,16 +14,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.Meme.Website.Cache.ConditionalRequests;
 import com.example.Meme.Website.Exceptions.CustomExceptions;
 import com.example.Meme.Website.Security.CookieUtil;
-import com.example.Meme.Website.models.Comments;
-import com.example.Meme.Website.models.FollowersModel;
+import com.example.Meme.Website.dto.CursorPage;
+import com.example.Meme.Website.dto.FollowSuggestion;
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
 import com.example.Meme.Website.models.Meme;
+import com.example.Meme.Website.models.MemeInteraction;
 import com.example.Meme.Website.models.userModel;
+import com.example.Meme.Website.repository.memeRepository;
 import com.example.Meme.Website.repository.userRepository;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -34,6 +41,8 @@ import java.util.regex.Pattern;
 @Service
 public class ProfileService {
 
+    private static final int MAX_PAGE_SIZE = 50;
+
     @Autowired
     private Cloudinary cloudinary;
 
@@ -55,6 +64,24 @@ public class ProfileService {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    @Autowired
+    private memeRepository memeRepository;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private ProfilePropagationService propagationService;
+
+    @Autowired
+    private FollowGraphService followGraphService;
+
     @SuppressWarnings("unchecked")
     @Transactional
     public ResponseEntity<?> uploadProfilePicture(String userId, MultipartFile file) {
@@ -107,31 +134,12 @@ public class ProfileService {
             String newImageUrl = uploadResult.get("secure_url").toString();
 
             // 🔹 Update User Profile Image
-            user.setProfilePictureUrl(newImageUrl);
-            userRepository.save(user);
-
-            // ✅ Update profile picture in all memes uploaded by this user
-            List<Meme> memes = mongoTemplate.find(new Query(Criteria.where("UserId").is(userId)), Meme.class);
-            for (Meme meme : memes) {
-                meme.setProfilePictureUrl(newImageUrl);
-                mongoTemplate.save(meme);
-            }
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                    new Update().set("profilePictureUrl", newImageUrl), userModel.class);
 
-            // ✅ Update profile picture in all comments by this user
-            List<Comments> comments = mongoTemplate.find(new Query(Criteria.where("userId").is(userId)),
-                    Comments.class);
-            for (Comments comment : comments) {
-                comment.setProfilePictureUrl(newImageUrl);
-                mongoTemplate.save(comment);
-            }
-
-            Query followersQuery = new Query(Criteria.where("Followers.userId").is(userId));
-            Update followersUpdate = new Update().set("Followers.$.profilePictureUrl", newImageUrl);
-            mongoTemplate.updateMulti(followersQuery, followersUpdate, FollowersModel.class);
-
-            Query followingQuery = new Query(Criteria.where("Following.userId").is(userId));
-            Update followingUpdate = new Update().set("Following.$.profilePictureUrl", newImageUrl);
-            mongoTemplate.updateMulti(followingQuery, followingUpdate, FollowersModel.class);
+            // ✅ Memes and comments pick up the new picture in the background
+            propagationService.enqueue(userId, "profilePictureUrl");
+            redisService.bumpVersion(redisService.profileVersionKey(userId));
 
             // 🔹 Return success response
             return ResponseEntity
@@ -177,61 +185,122 @@ public class ProfileService {
         return null;
     }
 
-    @Transactional
-    public void updateProfilePictureInFollowersAndFollowing(String userId, String newProfilePictureUrl) {
-        Query followersQuery = new Query(Criteria.where("Followers.userId").is(userId));
-
-        Update followersUpdate = new Update()
-                .set("Followers.$[elem].profilePictureUrl", newProfilePictureUrl)
-                .filterArray(Criteria.where("elem.userId").is(userId)); // Correct way to apply array filter
-
-        mongoTemplate.updateMulti(followersQuery, followersUpdate, userModel.class);
-
-        // Update profile picture in Following list
-        Query followingQuery = new Query(Criteria.where("Following.userId").is(userId));
-        Update followingUpdate = new Update()
-                .set("Following.$[elem].profilePictureUrl", newProfilePictureUrl)
-                .filterArray(Criteria.where("elem.userId").is(userId));
-        mongoTemplate.updateMulti(followingQuery, followingUpdate, userModel.class);
-    }
+    /*
+     * Profile header only: basic fields and counts, read by projection, so its cost does not
+     * grow with the account. Memes, likes, saves and follow lists are paginated sub-resources.
+     */
+    public ResponseEntity<?> userProfile(String userId, WebRequest webRequest) {
+        long profileVersion = redisService.getVersion(redisService.profileVersionKey(userId));
+        String etag = ConditionalRequests.etag("profile", userId, String.valueOf(profileVersion));
+        if (ConditionalRequests.isNotModified(webRequest, etag, profileVersion)) {
+            return null; // 304 already written
+        }
 
-    @Transactional
-    public ResponseEntity<?> userProfile(String username) {
-        Optional<userModel> OptionalUser = userRepository.findById(username);
-        if (OptionalUser.isEmpty()) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("username").include("profilePictureUrl").include("userCreated")
+                .include("FollowersCount").include("FollowingCount");
+        userModel user = mongoTemplate.findOne(query, userModel.class);
+        if (user == null) {
             return ResponseEntity.status(404).body("User not found");
         }
-        userModel user = OptionalUser.get();
         Map<String, Object> userProfile = new HashMap<>();
 
         userProfile.put("userId", user.getUserId());
         userProfile.put("username", user.getUsername());
-        // userProfile.put("email", user.getEmail());
         userProfile.put("profilePictureUrl", user.getProfilePictureUrl());
         userProfile.put("userCreated", user.getUserCreated());
-        // userProfile.put("userUpdated", user.getUserUpdated());
-        userProfile.put("memeList", user.getMemeList());
-        userProfile.put("savedMemes", user.getSavedMemes());
-        userProfile.put("likedMemes", user.getLikedMemes());
-        userProfile.put("following", user.getFollowing());
-        userProfile.put("followers", user.getFollowers());
-        userProfile.put("followingCount", user.getFollowing().size());
-        userProfile.put("followersCount", user.getFollowers().size());
+        userProfile.put("followersCount", user.getFollowersCount() != null ? user.getFollowersCount() : 0);
+        userProfile.put("followingCount", user.getFollowingCount() != null ? user.getFollowingCount() : 0);
+        userProfile.put("memeCount", mongoTemplate.count(new Query(Criteria.where("UserId").is(userId)), Meme.class));
+        userProfile.put("likedCount", interactionService.count(userId, MemeInteraction.Kind.LIKE));
+        userProfile.put("savedCount", interactionService.count(userId, MemeInteraction.Kind.SAVE));
 
         return ResponseEntity.ok(userProfile);
-        // return ResponseEntity.ok(user.get());
     }
 
-    @Transactional
-    public ResponseEntity<?> getFollowers(String userId) {
-        Optional<userModel> userOpt = userRepository.findById(userId);
+    // Memes uploaded by the user, newest first, keyset-paginated by author_order_idx
+    public ResponseEntity<?> getUserMemes(String userId, String after, int limit) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<MemeCard> cards = memeRepository.findAuthorCards(List.of(userId), cursor, pageSize + 1);
+        boolean hasMore = cards.size() > pageSize;
+        List<MemeCard> items = hasMore ? cards.subList(0, pageSize) : cards;
+        String nextCursor = null;
+        if (hasMore) {
+            MemeCard last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(last.getMemeCreated().getTime(), last.getId());
+        }
+        return ResponseEntity.ok(new CursorPage<>(items, nextCursor, hasMore));
+    }
 
-        if (userOpt.isEmpty()) {
+    public ResponseEntity<?> getInteractionMemes(String userId, MemeInteraction.Kind kind, String after, int limit) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(interactionService.page(userId, kind, cursor, pageSize));
+    }
+
+    public ResponseEntity<?> getFollowers(String userId, String after, int limit) {
+        return relationPage(userId, false, after, limit);
+    }
+
+    public ResponseEntity<?> getFollowing(String userId, String after, int limit) {
+        return relationPage(userId, true, after, limit);
+    }
+
+    private ResponseEntity<?> relationPage(String userId, boolean following, String after, int limit) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        if (!userRepository.existsById(userId)) {
             return ResponseEntity.status(404).body(Map.of("error", "User not found!"));
         }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(following
+                ? followService.following(userId, cursor, pageSize)
+                : followService.followers(userId, cursor, pageSize));
+    }
 
-        userModel user = userOpt.get();
-        return ResponseEntity.ok(Map.of("followers", user.getFollowers(), "followersCount", user.getFollowersCount()));
+    // People the user may know: followees of followees and users with the same taste in memes
+    public ResponseEntity<?> getSuggestions(String userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.status(404).body(Map.of("error", "User not found!"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<FollowGraph.Suggestion> ranked = followGraphService.suggest(userId, pageSize);
+        Map<String, userModel> users = followService.profiles(
+                ranked.stream().map(FollowGraph.Suggestion::userId).toList());
+
+        List<FollowSuggestion> suggestions = new ArrayList<>();
+        for (FollowGraph.Suggestion suggestion : ranked) {
+            userModel user = users.get(suggestion.userId());
+            if (user != null) {
+                suggestions.add(new FollowSuggestion(user.getUserId(), user.getUsername(),
+                        user.getProfilePictureUrl(), suggestion.mutualFollows(), suggestion.sharedLikes()));
+            }
+        }
+        return ResponseEntity.ok(suggestions);
+    }
+
+    // How far the user's last picture / name change has spread into memes and comments
+    public ResponseEntity<?> getPropagationProgress(String userId) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.status(404).body(Map.of("error", "User not found!"));
+        }
+        return ResponseEntity.ok(propagationService.progress(userId));
     }
 
     @Transactional
@@ -257,8 +326,14 @@ public class ProfileService {
         }
 
         // Update username in DB
-        user.setUsername(newUsername);
-        userRepository.save(user);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().set("username", newUsername), userModel.class);
+        redisService.bumpVersion(redisService.profileVersionKey(userId));
+
+        // ✅ Memes and comments pick up the new name in the background
+        propagationService.enqueue(userId, "username");
+
+        userDetailsService.evict(previousUsername);
 
         // Invalidate old refresh token from Redis
         redisService.deleteToken("refresh_token", previousUsername);
@@ -288,60 +363,32 @@ public class ProfileService {
         return ResponseEntity.ok(response);
     }
 
-    @Transactional
-    public ResponseEntity<?> getFollowing(String userId) {
-        Optional<userModel> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(404).body("User not found.");
-        }
-
-        userModel user = userOpt.get();
-        List<FollowersModel> followingList = user.getFollowing(); // Directly retrieve the list
-
-        return ResponseEntity.ok(followingList);
-    }
-
+    // One edge upsert or delete plus two counter $inc; neither user document is loaded
     @Transactional
     public ResponseEntity<?> followUser(String userId, String targetUserId, Map<String, Boolean> requestBody) {
         boolean isFollowing = requestBody.getOrDefault("isFollowing", false);
-        Optional<userModel> userOpt = userRepository.findById(userId);
-        Optional<userModel> targetUserOpt = userRepository.findById(targetUserId);
 
-        if (userOpt.isEmpty() || targetUserOpt.isEmpty()) {
+        if (!userRepository.existsById(userId) || !userRepository.existsById(targetUserId)) {
             return ResponseEntity.status(404).body("User not found.");
         }
 
-        userModel user = userOpt.get();
-        userModel targetUser = targetUserOpt.get();
-
         if (isFollowing) {
             // Unfollow logic
-            user.getFollowing().removeIf(f -> f.getUserId().equals(targetUserId));
-            user.setFollowingCount(Math.max(0, user.getFollowingCount() - 1));
-
-            targetUser.getFollowers().removeIf(f -> f.getUserId().equals(userId));
-            targetUser.setFollowersCount(Math.max(0, targetUser.getFollowersCount() - 1));
-
-            userRepository.save(user);
-            userRepository.save(targetUser);
-
+            if (followService.unfollow(userId, targetUserId)) {
+                followGraphService.onFollow(userId, targetUserId, false);
+                redisService.bumpVersion(redisService.profileVersionKey(userId));
+                redisService.bumpVersion(redisService.profileVersionKey(targetUserId));
+                timelineService.onUnfollow(userId, targetUserId);
+            }
             return ResponseEntity.ok("Unfollowed successfully.");
         } else {
             // Follow logic
-            FollowersModel follower = new FollowersModel(null, userId, user.getUsername(), user.getProfilePictureUrl(),
-                    false);
-            FollowersModel following = new FollowersModel(null, targetUserId, targetUser.getUsername(),
-                    targetUser.getProfilePictureUrl(), false);
-
-            user.getFollowing().add(following);
-            user.setFollowingCount(user.getFollowingCount() + 1);
-
-            targetUser.getFollowers().add(follower);
-            targetUser.setFollowersCount(targetUser.getFollowersCount() + 1);
-
-            userRepository.save(user);
-            userRepository.save(targetUser);
-
+            if (followService.follow(userId, targetUserId)) {
+                followGraphService.onFollow(userId, targetUserId, true);
+                redisService.bumpVersion(redisService.profileVersionKey(userId));
+                redisService.bumpVersion(redisService.profileVersionKey(targetUserId));
+                timelineService.onFollow(userId, targetUserId);
+            }
             return ResponseEntity.ok("Followed successfully.");
         }
     }
@@ -1,14 +1,34 @@
 package com.example.Meme.Website.services;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import com.example.Meme.Website.Cache.CacheInvalidationBus;
+import com.example.Meme.Website.Cache.LocalCache;
+import com.example.Meme.Website.Cache.SingleFlight;
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.repository.memeRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -20,42 +40,148 @@ public class RedisService {
     @Autowired
     private RedisTemplate redisTemplate;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private memeRepository memeRepository;
+
+    @Autowired
+    private LocalCache localCache;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    private static final long MEME_TTL_MINUTES = 10;
+
+    private static final RedisScript<Long> UPDATE_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) end return 0",
+            Long.class);
+
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) end return false",
+            Long.class);
+
+    private static final RedisScript<Long> SET_UPDATE_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "if ARGV[2] == '1' then return redis.call('SADD', KEYS[1], ARGV[1]) end "
+                    + "return redis.call('SREM', KEYS[1], ARGV[1])",
+            Long.class);
+
+    // nil when the set is not cached, so callers can tell a miss from "none of them"
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MEMBERSHIP_IF_EXISTS = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return false end "
+                    + "return redis.call('SMISMEMBER', KEYS[1], unpack(ARGV))",
+            List.class);
+
+    // KEYS: sorted sets. ARGV: member, score, max size, ttl seconds. Sets that do not exist are left alone
+    private static final RedisScript<Long> ZADD_TO_EXISTING = new DefaultRedisScript<>(
+            "local n = 0 "
+                    + "for _, key in ipairs(KEYS) do "
+                    + "if redis.call('EXISTS', key) == 1 then "
+                    + "redis.call('ZADD', key, ARGV[2], ARGV[1]) "
+                    + "redis.call('ZREMRANGEBYRANK', key, 0, -(tonumber(ARGV[3]) + 1)) "
+                    + "redis.call('EXPIRE', key, ARGV[4]) "
+                    + "n = n + 1 end end "
+                    + "return n",
+            Long.class);
+
+    private static final RedisScript<Long> BUMP_VERSION = new DefaultRedisScript<>(
+            "local v = math.max(tonumber(ARGV[1]), tonumber(redis.call('GET', KEYS[1]) or '0') + 1) "
+                    + "redis.call('SET', KEYS[1], string.format('%d', v)) return v",
+            Long.class);
+
+    // L1 first; a Redis hit is parsed once and then served from heap until its namespace TTL
     public <T> T get(String key, Class<T> entityClass) {
+        T local = localCache.get(key, entityClass);
+        if (local != null) {
+            return local;
+        }
         try {
             Object o = redisTemplate.opsForValue().get(key);
+            if (o == null) {
+                return null;
+            }
             ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(o.toString(), entityClass);
+            T value = mapper.readValue(o.toString(), entityClass);
+            localCache.put(key, value, o.toString().length());
+            return value;
         } catch (Exception e) {
             log.error("Exception " + e);
             return null;
         }
     }
 
-    public void set(String key, Object o, Long till) {
+    // Same as get(key, Class) for generic types such as CursorPage<MemeCard>
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, JavaType type) {
+        Object local = localCache.get(key, type.getRawClass());
+        if (local != null) {
+            return (T) local;
+        }
+        return getRemote(key, type);
+    }
+
+    // Skips L1, for a caller whose local copy is known to be outdated; a hit replaces the local copy
+    public <T> T getRemote(String key, JavaType type) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonvalue = objectMapper.writeValueAsString(o);
-            redisTemplate.opsForValue().set(key, jsonvalue, till, TimeUnit.SECONDS);
+            Object o = redisTemplate.opsForValue().get(key);
+            if (o == null) {
+                return null;
+            }
+            T value = objectMapper.readValue(o.toString(), type);
+            localCache.put(key, value, o.toString().length());
+            return value;
         } catch (Exception e) {
-            log.error("Exception " + e);
+            log.error("Error reading '{}' from Redis: {}", key, e.getMessage());
+            return null;
         }
     }
 
-    // ✅ Store any object in Redis as JSON
+    public void set(String key, Object o, Long till) {
+        set(key, o, till, TimeUnit.SECONDS);
+    }
+
+    // ✅ Store any object in Redis as JSON (and in L1; other nodes drop their stale copy)
     public void set(String key, Object o, long time, TimeUnit unit) {
+        if (fill(key, o, time, unit)) {
+            invalidationBus.publish(key);
+        }
+    }
+
+    /**
+     * Same as set without the invalidation broadcast, for cache fills and
+     * refreshes: the value was recomputed from Mongo, so a copy another node
+     * holds is not wrong, only older, and that node finds this one in Redis
+     * when its own copy runs out.
+     */
+    public boolean fill(String key, Object o, long time, TimeUnit unit) {
         try {
             ObjectMapper objectMapper = new ObjectMapper();
             String jsonValue = objectMapper.writeValueAsString(o);
             redisTemplate.opsForValue().set(key, jsonValue, unit.toSeconds(time), TimeUnit.SECONDS);
+            localCache.put(key, o, jsonValue.length());
+            return true;
         } catch (Exception e) {
             System.err.println("Exception while saving to Redis: " + e.getMessage());
+            return false;
         }
     }
 
+    @SuppressWarnings("unchecked")
     public <T> List<T> getList(String key, Class<T> clazz) {
+        List<T> local = localCache.get(key, List.class);
+        if (local != null) {
+            return local;
+        }
+
         Object obj = redisTemplate.opsForValue().get(key);
 
         if (obj == null) {
@@ -72,14 +198,636 @@ public class RedisService {
 
         try {
             // System.out.println("📢 Retrieved JSON from Redis: " + json);
-            return objectMapper.readValue(json,
+            List<T> list = objectMapper.readValue(json,
                     objectMapper.getTypeFactory().constructCollectionType(List.class, clazz));
+            localCache.put(key, list, json.length());
+            return list;
         } catch (JsonProcessingException e) {
             e.printStackTrace();
             return new ArrayList<>();
         }
     }
 
+    public void delete(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.error("Error deleting Redis key '{}': {}", key, e.getMessage());
+        }
+        localCache.invalidate(key);
+        invalidationBus.publish(key);
+    }
+
+    // ---- Entity versions (ETags, page cache keys), L1-cached ----
+
+    // Global version of every cached meme card; bumped by any card mutation
+    public static final String MEMES_VERSION_KEY = "version:memes";
+
+    public String profileVersionKey(String userId) {
+        return key("version:profile", userId);
+    }
+
+    /**
+     * Versions are epoch millis that only ever move forward (max(now, previous + 1)),
+     * so they double as Last-Modified and never repeat a value handed out before
+     * Redis lost the key.
+     */
+    public long getVersion(String key) {
+        Long local = localCache.get(key, Long.class);
+        if (local != null) {
+            return local;
+        }
+        try {
+            String raw = stringRedisTemplate.opsForValue().get(key);
+            if (raw == null) {
+                stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+                raw = stringRedisTemplate.opsForValue().get(key);
+            }
+            long value = raw != null ? Long.parseLong(raw) : 0L;
+            localCache.put(key, value, Long.BYTES);
+            return value;
+        } catch (Exception e) {
+            log.error("Error reading version '{}': {}", key, e.getMessage());
+            return 0L;
+        }
+    }
+
+    public long bumpVersion(String key) {
+        try {
+            Long value = stringRedisTemplate.execute(BUMP_VERSION, List.of(key),
+                    String.valueOf(System.currentTimeMillis()));
+            localCache.invalidate(key);
+            invalidationBus.publish(key);
+            return value != null ? value : 0L;
+        } catch (Exception e) {
+            log.error("Error bumping version '{}': {}", key, e.getMessage());
+            return 0L;
+        }
+    }
+
+    // ---- Per-meme hash cache (card fields only; comments are never cached here) ----
+
+    public String memeKey(String memeId) {
+        return key("meme", memeId);
+    }
+
+    // Read-through single lookup; null when the meme does not exist
+    // Misses are coalesced, so a shared link going viral costs one Mongo read rather than one per request
+    public MemeCard getMemeCard(String memeId) {
+        MemeCard cached = readCachedMemes(List.of(memeId)).get(memeId);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.load(memeKey(memeId),
+                () -> readCachedMemes(List.of(memeId)).get(memeId),
+                () -> {
+                    List<MemeCard> loaded = memeRepository.findCardsByIds(List.of(memeId));
+                    if (loaded.isEmpty()) {
+                        return null;
+                    }
+                    applyPendingCounters(loaded);
+                    cacheMemeCards(loaded);
+                    return loaded.get(0);
+                });
+    }
+
+    /**
+     * Resolves meme cards in one pipelined round-trip of HGETALLs. Misses are
+     * loaded with a single Mongo $in projection and written back, also pipelined.
+     * Results keep the order of {@code ids}; unknown ids are skipped.
+     */
+    public List<MemeCard> getMemeCards(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> orderedIds = new ArrayList<>(ids);
+        Map<String, MemeCard> found = readCachedMemes(orderedIds);
+
+        List<String> misses = orderedIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!misses.isEmpty()) {
+            List<MemeCard> loaded = memeRepository.findCardsByIds(misses);
+            applyPendingCounters(loaded);
+            for (MemeCard card : loaded) {
+                found.put(card.getId(), card);
+            }
+            cacheMemeCards(loaded);
+        }
+
+        List<MemeCard> cards = new ArrayList<>(orderedIds.size());
+        for (String id : orderedIds) {
+            MemeCard card = found.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
+    }
+
+    // L1, then one pipelined round-trip for the rest; never touches Mongo
+    private Map<String, MemeCard> readCachedMemes(List<String> orderedIds) {
+        Map<String, MemeCard> found = new HashMap<>();
+
+        for (String id : orderedIds) {
+            MemeCard local = localCache.get(memeKey(id), MemeCard.class);
+            if (local != null) {
+                found.put(id, local);
+            }
+        }
+
+        List<String> remoteIds = orderedIds.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!remoteIds.isEmpty()) {
+            try {
+                List<Object> hashes = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String id : remoteIds) {
+                        connection.hashCommands().hGetAll(memeKey(id).getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                });
+                for (int i = 0; i < remoteIds.size(); i++) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, String> hash = (Map<String, String>) hashes.get(i);
+                    // Hashes written before commentCount existed still embed comments; treat them as misses
+                    if (hash != null && hash.containsKey("commentCount")) {
+                        MemeCard card = fromHash(hash);
+                        found.put(remoteIds.get(i), card);
+                        localCache.put(memeKey(remoteIds.get(i)), card, weigh(hash));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error reading memes from Redis, falling back to Mongo: {}", e.getMessage());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Mongo lags the write-behind counters by up to one flush; add what is still
+     * pending in Redis. That is the live {@code counters:{memeId}} hash plus any
+     * batch a flusher has claimed into {@code counters:inflight:{flushId}} but not
+     * yet written, which would otherwise be missing from both sides for a moment.
+     */
+    private void applyPendingCounters(List<MemeCard> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> pending = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (MemeCard card : cards) {
+                    connection.hashCommands().hGetAll(
+                            (CounterService.COUNTER_KEY_PREFIX + card.getId()).getBytes(StandardCharsets.UTF_8));
+                }
+                connection.setCommands().sMembers(CounterService.INFLIGHT_KEY.getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+            long[] likes = new long[cards.size()];
+            long[] saves = new long[cards.size()];
+            for (int i = 0; i < cards.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> deltas = (Map<String, String>) pending.get(i);
+                if (deltas != null) {
+                    likes[i] += Long.parseLong(deltas.getOrDefault("likecount", "0"));
+                    saves[i] += Long.parseLong(deltas.getOrDefault("saveCount", "0"));
+                }
+            }
+
+            // Usually empty: a batch is only in flight for the length of one bulk write
+            @SuppressWarnings("unchecked")
+            Set<String> flushIds = (Set<String>) pending.get(cards.size());
+            if (flushIds != null && !flushIds.isEmpty()) {
+                List<Object> inflight = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String flushId : flushIds) {
+                        byte[] key = (CounterService.INFLIGHT_KEY + ":" + flushId).getBytes(StandardCharsets.UTF_8);
+                        for (MemeCard card : cards) {
+                            connection.hashCommands().hMGet(key,
+                                    (card.getId() + ":likecount").getBytes(StandardCharsets.UTF_8),
+                                    (card.getId() + ":saveCount").getBytes(StandardCharsets.UTF_8));
+                        }
+                    }
+                    return null;
+                });
+                for (int j = 0; j < inflight.size(); j++) {
+                    @SuppressWarnings("unchecked")
+                    List<String> values = (List<String>) inflight.get(j);
+                    int i = j % cards.size();
+                    if (values != null && values.get(0) != null) {
+                        likes[i] += Long.parseLong(values.get(0));
+                    }
+                    if (values != null && values.get(1) != null) {
+                        saves[i] += Long.parseLong(values.get(1));
+                    }
+                }
+            }
+
+            for (int i = 0; i < cards.size(); i++) {
+                MemeCard card = cards.get(i);
+                card.setLikecount((int) Math.max(0, card.getLikecount() + likes[i]));
+                card.setSaveCount((int) Math.max(0, card.getSaveCount() + saves[i]));
+            }
+        } catch (Exception e) {
+            log.error("Error reading pending counters from Redis: {}", e.getMessage());
+        }
+    }
+
+    public void cacheMemeCard(MemeCard card) {
+        cacheMemeCards(List.of(card));
+    }
+
+    public void cacheMemeCards(Collection<MemeCard> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, String>> hashes = new HashMap<>();
+        for (MemeCard card : cards) {
+            Map<String, String> hash = toHash(card);
+            hashes.put(card.getId(), hash);
+            localCache.put(memeKey(card.getId()), card, weigh(hash));
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (MemeCard card : cards) {
+                    byte[] key = memeKey(card.getId()).getBytes(StandardCharsets.UTF_8);
+                    Map<byte[], byte[]> hash = new HashMap<>();
+                    hashes.get(card.getId()).forEach((field, value) -> hash.put(
+                            field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8)));
+                    connection.keyCommands().del(key); // drop fields that are now null
+                    connection.hashCommands().hMSet(key, hash);
+                    connection.keyCommands().expire(key, TimeUnit.MINUTES.toSeconds(MEME_TTL_MINUTES));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error caching memes in Redis: {}", e.getMessage());
+        }
+        // A fill or a brand-new meme changes nothing another node could hold, so nothing is published
+    }
+
+    // Sets one field, but only on an already cached meme so we never leave a partial hash behind
+    public void updateCachedMemeField(String memeId, String field, String value) {
+        try {
+            stringRedisTemplate.execute(UPDATE_IF_EXISTS, List.of(memeKey(memeId)), field, value);
+        } catch (Exception e) {
+            log.error("Error updating cached meme '{}': {}", memeId, e.getMessage());
+        }
+        localCache.invalidate(memeKey(memeId));
+        invalidationBus.publish(memeKey(memeId));
+        bumpVersion(MEMES_VERSION_KEY);
+    }
+
+    // Returns the new value of the field, or null when the meme is not cached
+    public Long incrementCachedMemeField(String memeId, String field, long delta) {
+        Long value = null;
+        try {
+            value = stringRedisTemplate.execute(INCREMENT_IF_EXISTS, List.of(memeKey(memeId)), field,
+                    String.valueOf(delta));
+        } catch (Exception e) {
+            log.error("Error incrementing cached meme '{}': {}", memeId, e.getMessage());
+        }
+        localCache.invalidate(memeKey(memeId));
+        invalidationBus.publish(memeKey(memeId));
+        bumpVersion(MEMES_VERSION_KEY);
+        return value;
+    }
+
+    public void evictMeme(String memeId) {
+        try {
+            stringRedisTemplate.delete(memeKey(memeId));
+        } catch (Exception e) {
+            log.error("Error evicting meme '{}' from Redis: {}", memeId, e.getMessage());
+        }
+        localCache.invalidate(memeKey(memeId));
+        invalidationBus.publish(memeKey(memeId));
+        bumpVersion(MEMES_VERSION_KEY);
+    }
+
+    // One DEL and one version bump for a whole chunk of memes
+    public void evictMemes(Collection<String> memeIds) {
+        if (memeIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = memeIds.stream().map(this::memeKey).toList();
+        try {
+            stringRedisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.error("Error evicting {} memes from Redis: {}", keys.size(), e.getMessage());
+        }
+        localCache.invalidateAll(keys);
+        invalidationBus.publishAll(keys);
+        bumpVersion(MEMES_VERSION_KEY);
+    }
+
+    private Map<String, String> toHash(MemeCard card) {
+        Map<String, String> hash = new HashMap<>();
+        putIfNotNull(hash, "id", card.getId());
+        putIfNotNull(hash, "userId", card.getUserId());
+        putIfNotNull(hash, "mediaUrl", card.getMediaUrl());
+        putIfNotNull(hash, "mediaType", card.getMediaType());
+        putIfNotNull(hash, "caption", card.getCaption());
+        putIfNotNull(hash, "uploader", card.getUploader());
+        hash.put("likecount", String.valueOf(card.getLikecount()));
+        hash.put("saveCount", String.valueOf(card.getSaveCount()));
+        if (card.getMemeCreated() != null) {
+            hash.put("memeCreated", String.valueOf(card.getMemeCreated().getTime()));
+        }
+        putIfNotNull(hash, "profilePictureUrl", card.getProfilePictureUrl());
+        hash.put("commentCount", String.valueOf(card.getCommentCount()));
+        return hash;
+    }
+
+    private MemeCard fromHash(Map<String, String> hash) {
+        MemeCard card = new MemeCard();
+        card.setId(hash.get("id"));
+        card.setUserId(hash.get("userId"));
+        card.setMediaUrl(hash.get("mediaUrl"));
+        card.setMediaType(hash.get("mediaType"));
+        card.setCaption(hash.get("caption"));
+        card.setUploader(hash.get("uploader"));
+        card.setLikecount(Integer.parseInt(hash.getOrDefault("likecount", "0")));
+        card.setSaveCount(Integer.parseInt(hash.getOrDefault("saveCount", "0")));
+        if (hash.containsKey("memeCreated")) {
+            card.setMemeCreated(new Date(Long.parseLong(hash.get("memeCreated"))));
+        }
+        card.setProfilePictureUrl(hash.get("profilePictureUrl"));
+        card.setCommentCount(Integer.parseInt(hash.getOrDefault("commentCount", "0")));
+        return card;
+    }
+
+    // Approximate heap footprint for the L1 weigher
+    private int weigh(Map<String, String> hash) {
+        int weight = 0;
+        for (Map.Entry<String, String> field : hash.entrySet()) {
+            weight += field.getKey().length() + field.getValue().length();
+        }
+        return weight;
+    }
+
+    private void putIfNotNull(Map<String, String> hash, String field, String value) {
+        if (value != null) {
+            hash.put(field, value);
+        }
+    }
+
+    // ---- Sorted sets (plain string members, so they go through the String template) ----
+
+    public void zAdd(String key, String member, double score) {
+        try {
+            stringRedisTemplate.opsForZSet().add(key, member, score);
+        } catch (Exception e) {
+            log.error("Error adding '{}' to sorted set '{}': {}", member, key, e.getMessage());
+        }
+    }
+
+    public void zAddAll(String key, Set<TypedTuple<String>> tuples) {
+        if (tuples.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(key, tuples);
+        } catch (Exception e) {
+            log.error("Error bulk adding to sorted set '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public void zRemove(String key, String member) {
+        try {
+            stringRedisTemplate.opsForZSet().remove(key, member);
+        } catch (Exception e) {
+            log.error("Error removing '{}' from sorted set '{}': {}", member, key, e.getMessage());
+        }
+    }
+
+    // Keeps only the maxSize highest-scored members
+    public void zTrim(String key, long maxSize) {
+        try {
+            stringRedisTemplate.opsForZSet().removeRange(key, 0, -(maxSize + 1));
+        } catch (Exception e) {
+            log.error("Error trimming sorted set '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public long zCount(String key, double min, double max) {
+        try {
+            Long count = stringRedisTemplate.opsForZSet().count(key, min, max);
+            return count != null ? count : 0;
+        } catch (Exception e) {
+            log.error("Error counting sorted set '{}': {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    // ZREVRANGEBYSCORE key max -inf WITHSCORES LIMIT 0 count
+    public Set<TypedTuple<String>> zRevRangeByScore(String key, double max, long count) {
+        try {
+            Set<TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, max, 0, count);
+            return tuples != null ? tuples : Collections.emptySet();
+        } catch (Exception e) {
+            log.error("Error reading sorted set '{}': {}", key, e.getMessage());
+            return Collections.emptySet();
+        }
+    }
+
+    /**
+     * Keyset page over a sorted set of (score = timestamp, member = id): up to
+     * {@code count} entries strictly after the cursor, newest first. Members
+     * sharing a score come back in descending id order, matching the Mongo
+     * (memeCreated, _id) sort.
+     */
+    public List<PageCursor> zRevPage(String key, PageCursor cursor, int count) {
+        double max = Double.POSITIVE_INFINITY;
+        long ties = 0;
+        if (cursor != null) {
+            max = cursor.getTimestamp();
+            // Members at exactly the cursor's score may sit before it; over-fetch by that many and filter
+            ties = zCount(key, max, max);
+        }
+
+        Set<TypedTuple<String>> tuples = zRevRangeByScore(key, max, count + ties);
+
+        List<PageCursor> entries = new ArrayList<>(count);
+        for (TypedTuple<String> tuple : tuples) {
+            if (entries.size() == count) {
+                break;
+            }
+            long score = tuple.getScore().longValue();
+            String member = tuple.getValue();
+            if (cursor != null && score == cursor.getTimestamp() && member.compareTo(cursor.getId()) >= 0) {
+                continue;
+            }
+            entries.add(new PageCursor(score, member));
+        }
+        return entries;
+    }
+
+    /*
+     * Adds one member to those of the sorted sets that already exist, in one script call,
+     * trimming each to maxSize and refreshing its TTL. A missing set is never created with a
+     * single member; whoever reads it next builds it in full.
+     */
+    public long zAddToExisting(List<String> keys, String member, double score, long maxSize, long ttlSeconds) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            Long added = stringRedisTemplate.execute(ZADD_TO_EXISTING, keys, member, String.valueOf((long) score),
+                    String.valueOf(maxSize), String.valueOf(ttlSeconds));
+            return added != null ? added : 0;
+        } catch (Exception e) {
+            log.error("Error adding '{}' to {} sorted sets: {}", member, keys.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    // Bulk ZADD into one sorted set, then trim it to maxSize and refresh its TTL
+    public void zAddAllTrimmed(String key, Set<TypedTuple<String>> tuples, long maxSize, long ttlSeconds) {
+        if (tuples.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(key, tuples);
+            stringRedisTemplate.opsForZSet().removeRange(key, 0, -(maxSize + 1));
+            stringRedisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("Error bulk adding to sorted set '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public void zRemoveAll(String key, Collection<String> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().remove(key, members.toArray());
+        } catch (Exception e) {
+            log.error("Error removing {} members from sorted set '{}': {}", members.size(), key, e.getMessage());
+        }
+    }
+
+    public void expire(String key, long ttlSeconds) {
+        try {
+            stringRedisTemplate.expire(key, ttlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("Error setting TTL on '{}': {}", key, e.getMessage());
+        }
+    }
+
+    // ZREVRANGE key start end: members by descending score, ranks inclusive
+    public List<String> zRevRange(String key, long start, long end) {
+        try {
+            Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key, start, end);
+            return members != null ? new ArrayList<>(members) : new ArrayList<>();
+        } catch (Exception e) {
+            log.error("Error reading sorted set '{}': {}", key, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public long zCard(String key) {
+        try {
+            Long size = stringRedisTemplate.opsForZSet().zCard(key);
+            return size != null ? size : 0;
+        } catch (Exception e) {
+            log.error("Error sizing sorted set '{}': {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    // ---- Plain sets ----
+
+    public void sAdd(String key, String member) {
+        try {
+            stringRedisTemplate.opsForSet().add(key, member);
+        } catch (Exception e) {
+            log.error("Error adding '{}' to set '{}': {}", member, key, e.getMessage());
+        }
+    }
+
+    // Adds or removes one member, but only on a set that is already cached so it never looks complete when partial
+    public void sUpdateIfExists(String key, String member, boolean add) {
+        try {
+            stringRedisTemplate.execute(SET_UPDATE_IF_EXISTS, List.of(key), member, add ? "1" : "0");
+        } catch (Exception e) {
+            log.error("Error updating set '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public void sAddAll(String key, Collection<String> members, long ttlSeconds) {
+        if (members.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+                connection.setCommands().sAdd(rawKey, members.stream()
+                        .map(member -> member.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new));
+                connection.keyCommands().expire(rawKey, ttlSeconds);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error filling set '{}': {}", key, e.getMessage());
+        }
+    }
+
+    // The candidates that are in the set; null when the set is not cached or Redis is unavailable
+    public Set<String> sMembersAmong(String key, List<String> candidates) {
+        if (candidates.isEmpty()) {
+            return new HashSet<>();
+        }
+        try {
+            List<?> flags = stringRedisTemplate.execute(MEMBERSHIP_IF_EXISTS, List.of(key), candidates.toArray());
+            if (flags == null) {
+                return null;
+            }
+            Set<String> members = new HashSet<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (((Number) flags.get(i)).longValue() == 1) {
+                    members.add(candidates.get(i));
+                }
+            }
+            return members;
+        } catch (Exception e) {
+            log.error("Error checking members of set '{}': {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean sIsMember(String key, String member) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(key, member));
+        } catch (Exception e) {
+            log.error("Error checking set '{}': {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    // The candidates that are members of the set, in one SMISMEMBER round-trip
+    public List<String> sFilterMembers(String key, Collection<String> candidates) {
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            Map<Object, Boolean> membership = stringRedisTemplate.opsForSet().isMember(key, candidates.toArray());
+            List<String> members = new ArrayList<>();
+            for (String candidate : candidates) {
+                if (membership != null && Boolean.TRUE.equals(membership.get(candidate))) {
+                    members.add(candidate);
+                }
+            }
+            return members;
+        } catch (Exception e) {
+            log.error("Error checking members of set '{}': {}", key, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public boolean exists(String key) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(key));
+        } catch (Exception e) {
+            log.error("Error checking Redis key '{}': {}", key, e.getMessage());
+            return false;
+        }
+    }
+
     public void setToken(String keyPrefix, String username, String token, long expirySecond) {
         try {
             String key = key(keyPrefix, username);
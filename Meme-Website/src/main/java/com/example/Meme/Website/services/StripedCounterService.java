@@ -0,0 +1,141 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-process tier in front of {@link CounterService} for memes that
+ * take thousands of likes per second. Each (meme, field) gets a LongAdder, so
+ * concurrent toggles land on different cells instead of queueing on one Redis
+ * key; every {@code counters.striped.flush-interval-ms} the summed delta goes
+ * to Redis as a single HINCRBY (and a single hot-score update).
+ *
+ * <p>Staleness bound: counts returned by this node are exact (cached card plus
+ * local pending delta). Other nodes, the cached card and the write-behind hash
+ * lag by at most one flush interval plus the Redis round trip, and Mongo by
+ * that plus {@code counters.flush-interval-ms}; that holds because the flush
+ * has a scheduler thread of its own (see {@code taskScheduler}) instead of
+ * queueing behind longer jobs. A graceful shutdown drains every cell; a crash
+ * loses at most the last interval of this node's deltas, which is why the tier
+ * is off by default.
+ */
+@Service
+@Slf4j
+public class StripedCounterService {
+
+    // Cells idle for this many flushes are dropped from the map
+    static final int IDLE_FLUSHES_BEFORE_EVICTION = 20;
+
+    @Value("${counters.striped.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    private final ConcurrentHashMap<String, Cell> cells = new ConcurrentHashMap<>();
+
+    // Evicted cells get one more drain, in case an add raced with the eviction; guarded by the flush lock
+    private final List<Cell> retired = new ArrayList<>();
+
+    static final class Cell {
+        final String key;
+        final String memeId;
+        final String field;
+        final LongAdder adder = new LongAdder();
+        int idleFlushes;
+
+        Cell(String key, String memeId, String field) {
+            this.key = key;
+            this.memeId = memeId;
+            this.field = field;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(String memeId, String field, long delta) {
+        String key = memeId + ":" + field;
+        cells.computeIfAbsent(key, k -> new Cell(k, memeId, field)).adder.add(delta);
+    }
+
+    // Delta taken on this node that has not reached Redis yet
+    public long pending(String memeId, String field) {
+        Cell cell = cells.get(memeId + ":" + field);
+        return cell != null ? cell.adder.sum() : 0;
+    }
+
+    // Synchronized so the final flush on shutdown never drains a cell at the same time as a scheduled one
+    @Scheduled(fixedDelayString = "${counters.striped.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        for (Cell cell : retired) {
+            drain(cell);
+        }
+        retired.clear();
+
+        for (Cell cell : cells.values()) {
+            if (!drain(cell) && ++cell.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICTION && cells.remove(cell.key, cell)) {
+                retired.add(cell);
+            }
+        }
+    }
+
+    // Redis and Mongo beans outlive this one, so the last deltas still reach them
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        flush();
+        retired.forEach(this::drain);
+        long left = cells.values().stream().mapToLong(cell -> cell.adder.sum()).sum();
+        if (left != 0) {
+            log.warn("Shutting down with {} striped counter deltas that could not be flushed", left);
+        }
+    }
+
+    /*
+     * Sends what the cell holds and then subtracts exactly that amount, so adds that race
+     * with the flush stay in the cell for the next one. Nothing is subtracted when Redis fails.
+     */
+    private boolean drain(Cell cell) {
+        long delta = cell.adder.sum();
+        if (delta == 0) {
+            return false;
+        }
+        cell.idleFlushes = 0;
+        try {
+            counterService.increment(cell.memeId, cell.field, delta);
+            cell.adder.add(-delta);
+        } catch (Exception e) {
+            log.error("Error flushing striped counter '{}', keeping it for the next flush: {}", cell.key,
+                    e.getMessage());
+            return true;
+        }
+        redisService.incrementCachedMemeField(cell.memeId, cell.field, delta);
+        if ("likecount".equals(cell.field)) {
+            hotRankingService.onLike(cell.memeId, (int) delta);
+        } else {
+            hotRankingService.onSave(cell.memeId, (int) delta);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+
+import com.example.Meme.Website.Cache.LocalCache;
+import com.example.Meme.Website.Cache.SingleFlight;
+import com.example.Meme.Website.dto.CursorPage;
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.PageCursor;
+import com.example.Meme.Website.models.Meme;
+import com.example.Meme.Website.models.userModel;
+import com.example.Meme.Website.repository.memeRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Home timelines ("memes from people I follow") materialized per user in a
+ * Redis sorted set {@code timeline:{userId}} scored by memeCreated. Uploads are
+ * pushed into every follower's timeline by a background fan-out, so a read is
+ * one ZREVRANGEBYSCORE of the page size. Only fully built sets are pushed to;
+ * a missing one is built from Mongo on its first read. Timelines are trimmed to
+ * {@code timeline.max-length} entries; older pages are pulled from Mongo.
+ *
+ * Accounts with at least {@code timeline.celebrity-threshold} followers are not
+ * fanned out. Their uploads go to a per-author set {@code author:{userId}}
+ * instead, which followers pull at read time and k-way merge with their pushed
+ * timeline, so one upload costs at most threshold-many timeline writes.
+ */
+@Service
+@Slf4j
+public class TimelineService {
+
+    @Value("${timeline.max-length:800}")
+    private long maxLength;
+
+    @Value("${timeline.ttl-days:14}")
+    private long ttlDays;
+
+    @Value("${timeline.fan-out-batch:500}")
+    private int fanOutBatch;
+
+    @Value("${timeline.celebrity-threshold:10000}")
+    private long celebrityThreshold;
+
+    public static final String CELEBRITIES_KEY = "timeline:celebrities";
+
+    /*
+     * Member at score 0 written only by a full build of a timeline or author set. While it is
+     * present the set holds everything down to its tail, so a short read really is the end;
+     * without it (trimmed, or created some other way) a short read falls back to Mongo.
+     */
+    static final String BUILT_MARKER = "~built";
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private memeRepository memeRepository;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private LocalCache localCache;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    @Qualifier("timelineExecutor")
+    private TaskExecutor timelineExecutor;
+
+    public String timelineKey(String userId) {
+        return redisService.key("timeline", userId);
+    }
+
+    public String authorKey(String userId) {
+        return redisService.key("author", userId);
+    }
+
+    // The upload request returns right away; followers' timelines are written by the fan-out worker
+    public void fanOut(Meme meme) {
+        timelineExecutor.execute(() -> {
+            try {
+                pushToFollowers(meme);
+            } catch (Exception e) {
+                log.error("Timeline fan-out of meme '{}' failed: {}", meme.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private void pushToFollowers(Meme meme) {
+        String authorId = meme.getUserId();
+        double score = meme.getMemeCreated().getTime();
+
+        if (followersCount(authorId) >= celebrityThreshold) {
+            // Pull model: one write here, followers merge this set in when they read
+            redisService.sAdd(CELEBRITIES_KEY, authorId);
+            redisService.zAddToExisting(List.of(authorKey(authorId), timelineKey(authorId)), meme.getId(), score,
+                    maxLength, ttlSeconds());
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        keys.add(timelineKey(authorId)); // uploaders see their own memes too
+        for (String followerId : followerIds(authorId)) {
+            keys.add(timelineKey(followerId));
+        }
+
+        long pushed = 0;
+        for (int from = 0; from < keys.size(); from += fanOutBatch) {
+            List<String> batch = keys.subList(from, Math.min(keys.size(), from + fanOutBatch));
+            pushed += redisService.zAddToExisting(batch, meme.getId(), score, maxLength, ttlSeconds());
+        }
+        log.info("Fanned out meme '{}' to {} of {} timelines", meme.getId(), pushed, keys.size());
+    }
+
+    public void onDelete(String authorId, String memeId) {
+        redisService.zRemove(authorKey(authorId), memeId);
+    }
+
+    // Backfills the new followee's recent memes; a timeline that is not built yet gets them on its first read
+    public void onFollow(String userId, String targetUserId) {
+        localCache.invalidate(celebrityFolloweesKey(userId));
+        timelineExecutor.execute(() -> {
+            try {
+                String key = timelineKey(userId);
+                if (redisService.exists(key) && !redisService.sIsMember(CELEBRITIES_KEY, targetUserId)) {
+                    redisService.zAddAllTrimmed(key, recentEntries(List.of(targetUserId)), maxLength, ttlSeconds());
+                }
+            } catch (Exception e) {
+                log.error("Timeline backfill for '{}' following '{}' failed: {}", userId, targetUserId,
+                        e.getMessage());
+            }
+        });
+    }
+
+    // Only the followee's newest max-length memes can still be in the timeline
+    public void onUnfollow(String userId, String targetUserId) {
+        localCache.invalidate(celebrityFolloweesKey(userId));
+        timelineExecutor.execute(() -> {
+            try {
+                List<String> memeIds = recentEntries(List.of(targetUserId)).stream().map(TypedTuple::getValue)
+                        .toList();
+                redisService.zRemoveAll(timelineKey(userId), memeIds);
+            } catch (Exception e) {
+                log.error("Timeline cleanup for '{}' unfollowing '{}' failed: {}", userId, targetUserId,
+                        e.getMessage());
+            }
+        });
+    }
+
+    public CursorPage<MemeCard> page(String userId, PageCursor cursor, int pageSize) {
+        String key = timelineKey(userId);
+        ensureTimeline(userId);
+
+        // The pushed timeline plus one pulled set per followed high-follower account
+        List<String> sources = new ArrayList<>();
+        sources.add(key);
+        for (String celebrityId : celebrityFollowees(userId)) {
+            ensureSet(authorKey(celebrityId), List.of(celebrityId));
+            sources.add(authorKey(celebrityId));
+        }
+
+        List<List<PageCursor>> runs = new ArrayList<>(sources.size());
+        boolean complete = true;
+        for (String source : sources) {
+            List<PageCursor> run = new ArrayList<>(redisService.zRevPage(source, cursor, pageSize + 2));
+            // The marker sorts last, so a run that reaches the tail of a fully built set ends with it
+            boolean reachedBuiltTail = run.removeIf(entry -> BUILT_MARKER.equals(entry.getId()));
+            // A short run without it may be a trimmed or partial set hiding older entries
+            if (run.size() <= pageSize && !reachedBuiltTail) {
+                complete = false;
+                break;
+            }
+            runs.add(run);
+        }
+
+        if (complete) {
+            redisService.expire(key, ttlSeconds());
+            List<PageCursor> entries = merge(runs, pageSize + 1);
+            boolean hasMore = entries.size() > pageSize;
+            List<PageCursor> pageEntries = hasMore ? entries.subList(0, pageSize) : entries;
+            List<String> ids = pageEntries.stream().map(PageCursor::getId).toList();
+            String nextCursor = hasMore ? pageEntries.get(pageSize - 1).encode() : null;
+            // Deleted memes are not fanned out of timelines; hydration simply skips them
+            return new CursorPage<>(redisService.getMemeCards(ids), nextCursor, hasMore);
+        }
+
+        // Past the trimmed tail of the timeline: page the followees' memes straight from Mongo
+        List<MemeCard> cards = memeRepository.findAuthorCards(authorIds(userId), cursor, pageSize + 1);
+        boolean hasMore = cards.size() > pageSize;
+        List<MemeCard> items = hasMore ? new ArrayList<>(cards.subList(0, pageSize)) : cards;
+        String nextCursor = null;
+        if (hasMore) {
+            MemeCard last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(last.getMemeCreated().getTime(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * K-way merge of runs that are each sorted newest first by (timestamp, id),
+     * keeping the first {@code limit} distinct ids. A meme can sit in two runs
+     * when its author crossed the follower threshold, hence the dedupe.
+     */
+    static List<PageCursor> merge(List<List<PageCursor>> runs, int limit) {
+        Comparator<PageCursor> newestFirst = Comparator.comparingLong(PageCursor::getTimestamp)
+                .thenComparing(PageCursor::getId).reversed();
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> newestFirst.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int i = 0; i < runs.size(); i++) {
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[] { i, 0 });
+            }
+        }
+
+        List<PageCursor> merged = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            PageCursor entry = runs.get(head[0]).get(head[1]);
+            if (seen.add(entry.getId())) {
+                merged.add(entry);
+            }
+            if (head[1] + 1 < runs.get(head[0]).size()) {
+                heads.add(new int[] { head[0], head[1] + 1 });
+            }
+        }
+        return merged;
+    }
+
+    // Builds a missing (new or expired) timeline once, with concurrent readers waiting on that one build
+    private void ensureTimeline(String userId) {
+        if (redisService.exists(timelineKey(userId))) {
+            return;
+        }
+        // Followed high-follower accounts are merged in at read time, so they are left out here
+        Set<String> celebrities = new HashSet<>(celebrityFollowees(userId));
+        List<String> pushedAuthors = authorIds(userId).stream().filter(id -> !celebrities.contains(id)).toList();
+        ensureSet(timelineKey(userId), pushedAuthors);
+    }
+
+    private void ensureSet(String key, List<String> authorIds) {
+        if (redisService.exists(key)) {
+            return;
+        }
+        singleFlight.load(key,
+                () -> redisService.exists(key) ? Boolean.TRUE : null,
+                () -> {
+                    Set<TypedTuple<String>> entries = recentEntries(authorIds);
+                    // Trimming drops the marker first, so it survives only while nothing older was cut off
+                    entries.add(TypedTuple.of(BUILT_MARKER, 0.0));
+                    redisService.zAddAllTrimmed(key, entries, maxLength, ttlSeconds());
+                    return Boolean.TRUE;
+                });
+    }
+
+    // (memeId, memeCreated) of the authors' newest memes; a projection, so no DBRefs are resolved
+    private Set<TypedTuple<String>> recentEntries(List<String> authorIds) {
+        Query query = new Query(Criteria.where("UserId").in(authorIds))
+                .with(Sort.by(Sort.Direction.DESC, "memeCreated"))
+                .limit((int) maxLength);
+        query.fields().include("_id").include("memeCreated");
+
+        Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (Meme meme : mongoTemplate.find(query, Meme.class)) {
+            if (meme.getMemeCreated() != null) {
+                tuples.add(TypedTuple.of(meme.getId(), (double) meme.getMemeCreated().getTime()));
+            }
+        }
+        return tuples;
+    }
+
+    private List<String> authorIds(String userId) {
+        List<String> authors = new ArrayList<>(followeeIds(userId));
+        authors.add(userId);
+        return authors;
+    }
+
+    // Followees that are pulled rather than pushed; cached briefly since every timeline read needs it
+    @SuppressWarnings("unchecked")
+    private List<String> celebrityFollowees(String userId) {
+        String cacheKey = celebrityFolloweesKey(userId);
+        List<String> cached = localCache.get(cacheKey, List.class);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> celebrities = redisService.sFilterMembers(CELEBRITIES_KEY, followeeIds(userId));
+        localCache.put(cacheKey, celebrities, 64 + celebrities.size() * 32);
+        return celebrities;
+    }
+
+    private String celebrityFolloweesKey(String userId) {
+        return redisService.key("celebfollows", userId);
+    }
+
+    private long followersCount(String userId) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("FollowersCount");
+        userModel user = mongoTemplate.findOne(query, userModel.class);
+        return user != null && user.getFollowersCount() != null ? user.getFollowersCount() : 0;
+    }
+
+    private List<String> followerIds(String userId) {
+        return followService.followerIds(userId);
+    }
+
+    private List<String> followeeIds(String userId) {
+        return followService.followeeIds(userId);
+    }
+
+    private long ttlSeconds() {
+        return TimeUnit.DAYS.toSeconds(ttlDays);
+    }
+}
@@ -1,32 +1,63 @@
 package com.example.Meme.Website.services;
 
-import  java.util.Optional;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.Meme.Website.Cache.CacheInvalidationBus;
+import com.example.Meme.Website.Cache.LocalCache;
 import com.example.Meme.Website.models.UserPrincipal;
 import com.example.Meme.Website.models.userModel;
-import com.example.Meme.Website.repository.userRepository;
 
+/**
+ * Runs on every authenticated request through JwtFilter, so principals are kept
+ * in the L1 cache ("principal" namespace, 1 minute by default) and a miss reads
+ * only _id, username and password instead of the whole user document.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LocalCache localCache;
+
     @Autowired
-    private userRepository userRepository;
+    private CacheInvalidationBus invalidationBus;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<userModel> user = userRepository.findByUsername(username);
+        String key = principalKey(username);
+        UserPrincipal cached = localCache.get(key, UserPrincipal.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        Query query = new Query(Criteria.where("username").is(username));
+        query.fields().include("_id").include("username").include("password");
+        userModel user = mongoTemplate.findOne(query, userModel.class);
         if (user == null) {
-            System.out.println("User Not Found");
-            throw new UsernameNotFoundException("user not found");
+            throw new UsernameNotFoundException("User not found");
         }
-        
-        return new UserPrincipal(user.orElseThrow(() -> new UsernameNotFoundException("User not found")));
 
+        UserPrincipal principal = new UserPrincipal(user);
+        localCache.put(key, principal, username.length() + user.getPassword().length() + 24);
+        return principal;
+    }
+
+    // Call after anything a principal holds changes, on every node
+    public void evict(String username) {
+        localCache.invalidate(principalKey(username));
+        invalidationBus.publish(principalKey(username));
+    }
+
+    private String principalKey(String username) {
+        return "principal:" + username;
     }
-    
 }
@@ -1,20 +1,24 @@
 package com.example.Meme.Website.services;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.socket.TextMessage;
@@ -22,15 +26,28 @@ import org.springframework.web.socket.WebSocketSession;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.Meme.Website.Cache.CachedValue;
+import com.example.Meme.Website.Cache.ConditionalRequests;
+import com.example.Meme.Website.Cache.ResponseBytesCache;
+import com.example.Meme.Website.Cache.StaleWhileRevalidateCache;
 import com.example.Meme.Website.WebSockets.WebSocketSessionManager;
+import com.example.Meme.Website.dto.CursorPage;
+import com.example.Meme.Website.dto.MemeCard;
+import com.example.Meme.Website.dto.MemeState;
+import com.example.Meme.Website.dto.PageCursor;
 import com.example.Meme.Website.models.Comments;
 import com.example.Meme.Website.models.Meme;
+import com.example.Meme.Website.models.MemeInteraction;
 import com.example.Meme.Website.models.userModel;
 import com.example.Meme.Website.repository.commentRepository;
 import com.example.Meme.Website.repository.memeRepository;
 import com.example.Meme.Website.repository.userRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.DBRef;
+import com.mongodb.client.result.UpdateResult;
 
 import io.jsonwebtoken.io.IOException;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +56,13 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class memeService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    // Newest memes the deprecated GET /memes still returns; everything older is only reachable through /memes/feed
+    static final int LEGACY_FEED_LIMIT = 500;
+    private static final int MAX_STATE_IDS = 100;
+    private static final Duration FEED_PAGE_SOFT_TTL = Duration.ofSeconds(15);
+    private static final Duration FEED_PAGE_HARD_TTL = Duration.ofMinutes(2);
+
     @Autowired
     private userRepository userRepository;
     @Autowired
@@ -51,27 +75,130 @@ public class memeService {
     private MongoTemplate mongoTemplate;
     @Autowired
     private RedisService redisService;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private StripedCounterService stripedCounterService;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private FeedIndexService feedIndexService;
+    @Autowired
+    private StaleWhileRevalidateCache feedPageCache;
+    @Autowired
+    private ResponseBytesCache responseBytesCache;
+    @Autowired
+    private HotRankingService hotRankingService;
+    @Autowired
+    private TimelineService timelineService;
 
 
+    /**
+     * @deprecated the web client pages through {@link #getFeed}; this only serves the newest
+     * {@value #LEGACY_FEED_LIMIT} memes from the feed index, so it never scans the collection.
+     */
+    @Deprecated
     @Transactional
-    public ResponseEntity<List<Meme>> getAllMemes() {
-        List<Meme> memes = redisService.getList("AllMemes", Meme.class);
+    public ResponseEntity<byte[]> getAllMemes(WebRequest webRequest) {
+        long feedVersion = feedIndexService.version();
+        long memesVersion = redisService.getVersion(RedisService.MEMES_VERSION_KEY);
+        String etag = ConditionalRequests.etag("memes", String.valueOf(feedVersion), String.valueOf(memesVersion));
+        if (ConditionalRequests.isNotModified(webRequest, etag, Math.max(feedVersion, memesVersion))) {
+            return null; // 304 already written
+        }
 
-        if (memes != null && !memes.isEmpty()) {
-            System.out.println("✅ Returning memes from Redis cache");
-            return ResponseEntity.ok(memes);
+        // Rendered and gzipped once per version pair; hits skip the index, the cards and Jackson
+        ResponseEntity<byte[]> response = responseBytesCache.respond("memes:" + feedVersion + ":" + memesVersion,
+                webRequest, () -> {
+                    int limit = (int) Math.min(LEGACY_FEED_LIMIT, feedIndexService.maxIndexSize());
+                    List<String> ids = feedIndexService.page(null, limit).stream().map(PageCursor::getId).toList();
+                    return redisService.getMemeCards(ids);
+                });
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</memes/feed>; rel=\"successor-version\"")
+                .body(response.getBody());
+    }
+
+    // Keyset pagination over (memeCreated desc, _id desc), served by feed_order_idx
+    @Transactional
+    public ResponseEntity<?> getFeed(String after, int limit, WebRequest webRequest) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         }
 
-        memes = memeRepository.findAll();
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        // Pages are keyed by feed version, so uploads and deletes roll every page over at once
+        String pageKey = "feed:cards:" + feedIndexService.version() + ":" + (cursor == null ? "head" : after) + ":"
+                + pageSize;
+        JavaType pageType = objectMapper.getTypeFactory().constructParametricType(CursorPage.class, MemeCard.class);
+
+        // Stale pages are served at once while a background refresh rebuilds them
+        CachedValue<CursorPage<MemeCard>> page = feedPageCache.getEntry(pageKey, pageType, FEED_PAGE_SOFT_TTL,
+                FEED_PAGE_HARD_TTL, () -> loadFeedPage(cursor, pageSize));
+        // Each load of the page has its own refreshAt, so the rendered bytes are keyed by it
+        return responseBytesCache.respond(pageKey + ":" + page.getRefreshAt(), webRequest, page::getValue);
+    }
 
-        if (!memes.isEmpty()) {
-            redisService.set("AllMemes", memes, 10, TimeUnit.MINUTES);
-            System.out.println("🔄 Caching memes in Redis for 10 minutes");
+    private CursorPage<MemeCard> loadFeedPage(PageCursor cursor, int pageSize) {
+        // A full page from the Redis index; a short one means we reached its tail, so Mongo answers instead
+        List<PageCursor> entries = feedIndexService.page(cursor, pageSize + 1);
+        if (entries.size() > pageSize) {
+            List<String> ids = entries.subList(0, pageSize).stream().map(PageCursor::getId).toList();
+            String nextCursor = entries.get(pageSize - 1).encode();
+            return new CursorPage<>(redisService.getMemeCards(ids), nextCursor, true);
         }
 
-        return ResponseEntity.ok(memes);
+        // One extra row tells us whether another page exists
+        List<MemeCard> cards = memeRepository.findFeedCards(cursor, pageSize + 1);
+        return toFeedPage(cards, pageSize);
+    }
+
+    // Memes from the accounts the user follows, newest first
+    public ResponseEntity<?> getTimeline(String userId, String after, int limit) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        return ResponseEntity.ok(timelineService.page(userId, cursor, pageSize));
+    }
+
+    // Trending memes by decayed engagement; nextCursor carries the next page number
+    public ResponseEntity<?> getHotMemes(int page, int limit) {
+        if (page < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid page"));
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        List<String> ids = hotRankingService.page(page, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<MemeCard> items = redisService.getMemeCards(hasMore ? ids.subList(0, pageSize) : ids);
+        return ResponseEntity.ok(new CursorPage<>(items, hasMore ? String.valueOf(page + 1) : null, hasMore));
+    }
+
+    private CursorPage<MemeCard> toFeedPage(List<MemeCard> cards, int pageSize) {
+        boolean hasMore = cards.size() > pageSize;
+        List<MemeCard> items = hasMore ? new ArrayList<>(cards.subList(0, pageSize)) : cards;
+
+        String nextCursor = null;
+        if (hasMore) {
+            MemeCard last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(last.getMemeCreated().getTime(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 
     @Transactional
@@ -83,13 +210,27 @@ public class memeService {
         return ResponseEntity.ok(memes);
     }
 
-    // @Transactional
-    public ResponseEntity<Meme> getMemeById(String id) {
-        Optional<Meme> meme = memeRepository.findById(id);
-        if (meme.isEmpty()) {
+    // Detail page: the cached card plus its comments, fetched through the memeId index
+    public ResponseEntity<Meme> getMemeById(String id, WebRequest webRequest) {
+        MemeCard card = redisService.getMemeCard(id);
+        if (card == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(meme.get());
+        // The card carries the comment count, so its digest also changes when a comment lands
+        String etag;
+        try {
+            etag = ConditionalRequests.etag("meme", id,
+                    ConditionalRequests.digest(objectMapper.writeValueAsBytes(card)));
+        } catch (JsonProcessingException e) {
+            etag = null;
+        }
+        if (etag != null && ConditionalRequests.isNotModified(webRequest, etag, -1)) {
+            return null; // 304 already written
+        }
+        Meme meme = new Meme(card.getId(), card.getUserId(), card.getMediaUrl(), card.getMediaType(),
+                card.getCaption(), card.getUploader(), card.getLikecount(), card.getSaveCount(),
+                card.getMemeCreated(), commentRepository.findByMemeId(id), card.getProfilePictureUrl());
+        return ResponseEntity.ok(meme);
     }
 
     @Transactional
@@ -102,8 +243,8 @@ public class memeService {
         response.put("userUpdated", user.getUserUpdated());
 
         response.put("uploadedCount", user.getMemeList() != null ? user.getMemeList().size() : 0);
-        response.put("likedCount", user.getLikedMemes() != null ? user.getLikedMemes().size() : 0);
-        response.put("savedCount", user.getSavedMemes() != null ? user.getSavedMemes().size() : 0);
+        response.put("likedCount", interactionService.count(user.getUserId(), MemeInteraction.Kind.LIKE));
+        response.put("savedCount", interactionService.count(user.getUserId(), MemeInteraction.Kind.SAVE));
 
         return response;
     }
@@ -111,53 +252,29 @@ public class memeService {
     @Transactional
     public ResponseEntity<?> likedMemes(String username, String memeId, boolean like) {
         try {
-            Optional<userModel> optionalUser = userRepository.findByUsername(username);
-            if (optionalUser.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: User not found");
-            }
-
-            Optional<Meme> optionalMeme = memeRepository.findById(memeId);
-            if (optionalMeme.isEmpty()) {
+            MemeCard meme = redisService.getMemeCard(memeId);
+            if (meme == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: Meme not found");
             }
 
-            userModel user = optionalUser.get();
-            Meme meme = optionalMeme.get();
-
-            List<Meme> likedMemes = user.getLikedMemes();
-            if (likedMemes == null) {
-                likedMemes = new ArrayList<>();
+            Integer delta = toggleInteraction(username, memeId, MemeInteraction.Kind.LIKE, like);
+            if (delta == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: User not found");
             }
 
             String message;
             if (like) {
-                if (!likedMemes.contains(meme)) {
-                    likedMemes.add(meme);
-                    meme.setLikecount(meme.getLikecount() + 1);
-                    message = "Meme liked successfully";
-                    System.out.println("Meme liked by user: " + username);
-                } else {
-                    message = "Meme already liked";
-                }
+                message = delta != 0 ? "Meme liked successfully" : "Meme already liked";
             } else {
-                if (likedMemes.contains(meme)) {
-                    likedMemes.remove(meme);
-                    meme.setLikecount(Math.max(0, meme.getLikecount() - 1));
-                    message = "Meme unliked successfully";
-                    System.out.println("Meme unliked by user: " + username);
-                } else {
-                    message = "Meme was not previously liked";
-                }
+                message = delta != 0 ? "Meme unliked successfully" : "Meme was not previously liked";
             }
 
-            user.setLikedMemes(likedMemes);
-            userRepository.save(user);
-            memeRepository.save(meme);
+            int likeCount = applyCounterDelta(meme, "likecount", delta);
 
             // Return structured response with likeCount
             ObjectNode response = new ObjectMapper().createObjectNode();
             response.put("message", message);
-            response.put("likeCount", meme.getLikecount());
+            response.put("likeCount", likeCount);
 
             return ResponseEntity.ok(response);
 
@@ -171,52 +288,28 @@ public class memeService {
     @Transactional
     public ResponseEntity<?> saveMeme(String username, String memeId, boolean save) {
         try {
-            Optional<userModel> optionalUser = userRepository.findByUsername(username);
-            if (optionalUser.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: User not found");
-            }
-
-            Optional<Meme> optionalMeme = memeRepository.findById(memeId);
-            if (optionalMeme.isEmpty()) {
+            MemeCard meme = redisService.getMemeCard(memeId);
+            if (meme == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: Meme not found");
             }
 
-            userModel user = optionalUser.get();
-            Meme meme = optionalMeme.get();
-
-            List<Meme> savedMemes = user.getSavedMemes();
-            if (savedMemes == null) {
-                savedMemes = new ArrayList<>();
+            Integer delta = toggleInteraction(username, memeId, MemeInteraction.Kind.SAVE, save);
+            if (delta == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: User not found");
             }
 
             String message;
             if (save) {
-                if (!savedMemes.contains(meme)) {
-                    savedMemes.add(meme);
-                    meme.setSaveCount(meme.getSaveCount() + 1);
-                    message = "Meme saved successfully";
-                    System.out.println("Meme saved by user: " + username);
-                } else {
-                    message = "Meme already saved";
-                }
+                message = delta != 0 ? "Meme saved successfully" : "Meme already saved";
             } else {
-                if (savedMemes.contains(meme)) {
-                    savedMemes.remove(meme);
-                    meme.setSaveCount(Math.max(0, meme.getLikecount() - 1));
-                    message = "Meme unsaved successfully";
-                    System.out.println("Meme unsaved by user: " + username);
-                } else {
-                    message = "Meme was not previously saved";
-                }
+                message = delta != 0 ? "Meme unsaved successfully" : "Meme was not previously saved";
             }
 
-            user.setSavedMemes(savedMemes);
-            userRepository.save(user);
-            memeRepository.save(meme);
+            int saveCount = applyCounterDelta(meme, "saveCount", delta);
 
             ObjectNode response = new ObjectMapper().createObjectNode();
             response.put("message", message);
-            response.put("saveCount", meme.getSaveCount());
+            response.put("saveCount", saveCount);
 
             return ResponseEntity.ok(response);
 
@@ -226,6 +319,49 @@ public class memeService {
         }
     }
 
+    /*
+     * Creates or drops one interaction edge; the unique index makes the toggle a single
+     * insert or delete, so concurrent toggles cannot lose each other. Returns +1 / -1 when
+     * membership changed, 0 when it already was as requested, and null when the user does not exist.
+     */
+    private Integer toggleInteraction(String username, String memeId, MemeInteraction.Kind kind, boolean add) {
+        String userId = interactionService.userIdFor(username);
+        if (userId == null) {
+            return null;
+        }
+        int delta = interactionService.toggle(userId, memeId, kind, add);
+        if (delta != 0) {
+            redisService.bumpVersion(redisService.profileVersionKey(userId));
+        }
+        return delta;
+    }
+
+    /*
+     * Counters are write-behind: the delta goes to Redis and CounterService flushes it
+     * to Mongo in bulk. The cached card is bumped in place so readers see it right away.
+     * With the striped tier on, the delta stays in this process until its next flush.
+     */
+    private int applyCounterDelta(MemeCard meme, String field, int delta) {
+        int current = "likecount".equals(field) ? meme.getLikecount() : meme.getSaveCount();
+        if (delta == 0) {
+            return current;
+        }
+
+        if (stripedCounterService.isEnabled()) {
+            stripedCounterService.add(meme.getId(), field, delta);
+            return (int) Math.max(0, current + stripedCounterService.pending(meme.getId(), field));
+        }
+
+        counterService.increment(meme.getId(), field, delta);
+        if ("likecount".equals(field)) {
+            hotRankingService.onLike(meme.getId(), delta);
+        } else {
+            hotRankingService.onSave(meme.getId(), delta);
+        }
+        Long cached = redisService.incrementCachedMemeField(meme.getId(), field, delta);
+        return (int) Math.max(0, cached != null ? cached : current + delta);
+    }
+
     @Transactional
     public ResponseEntity<?> uploadMeme(MultipartFile file, String caption, String uploader, String profilePictureUrl,
             String userId)
@@ -280,14 +416,17 @@ public class memeService {
                     new ArrayList<>(), profilePictureUrl);
             memeRepository.save(meme);
 
-            // 🔹 Store meme ID in user's meme list
-            user.getMemeList().add(meme);
-            userRepository.save(user);
+            // 🔹 Store meme ID in user's meme list, as a $push so nothing else on the user document is rewritten
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getUserId())),
+                    new Update().push("memeList", new DBRef("memes", new ObjectId(meme.getId()))),
+                    userModel.class);
+            redisService.bumpVersion(redisService.profileVersionKey(user.getUserId()));
 
-            String redisKey = "AllMemes"; // Key to store memes by user
-            List<Meme> memeList = redisService.getList(redisKey, Meme.class);
-            memeList.add(meme);
-            redisService.set(redisKey, memeList, 10, TimeUnit.MINUTES); // Cache for 10 min
+            // 🔹 Index the new meme: one ZADD plus its own entry, independent of feed size
+            redisService.cacheMemeCard(MemeCard.from(meme));
+            feedIndexService.add(meme);
+            hotRankingService.onUpload(meme.getId());
+            timelineService.fanOut(meme);
 
             return ResponseEntity.ok(meme);
 
@@ -298,86 +437,89 @@ public class memeService {
     }
 
     @Transactional
-    public ResponseEntity<?> getAllLikedMemes(String username) {
-        Optional<userModel> optionalUser = userRepository.findByUsername(username);
-        if (optionalUser.isEmpty()) {
+    public ResponseEntity<?> getAllLikedMemes(String username, String after, int limit) {
+        return getInteractionPage(username, MemeInteraction.Kind.LIKE, after, limit);
+    }
+
+    @Transactional
+    public ResponseEntity<?> getAllSavedMemes(String username, String after, int limit) {
+        return getInteractionPage(username, MemeInteraction.Kind.SAVE, after, limit);
+    }
+
+    // Like / save flags and counts for one page of memes, keyed by meme id; unknown ids are left out
+    public ResponseEntity<?> getMemeStates(String username, List<String> memeIds) {
+        if (memeIds == null || memeIds.isEmpty()) {
+            return ResponseEntity.ok(Map.of());
+        }
+        List<String> ids = memeIds.stream().distinct().toList();
+        if (ids.size() > MAX_STATE_IDS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_STATE_IDS + " meme ids per request"));
+        }
+
+        String userId = interactionService.userIdFor(username);
+        if (userId == null) {
             return ResponseEntity.badRequest().body("User not found");
         }
 
-        userModel user = optionalUser.get();
-        List<Meme> LikedMemes = user.getLikedMemes();
+        Set<String> liked = interactionService.memeIdsAmong(userId, MemeInteraction.Kind.LIKE, ids);
+        Set<String> saved = interactionService.memeIdsAmong(userId, MemeInteraction.Kind.SAVE, ids);
 
-        return ResponseEntity.ok(LikedMemes);
+        Map<String, MemeState> states = new LinkedHashMap<>();
+        for (MemeCard card : redisService.getMemeCards(ids)) {
+            states.put(card.getId(), new MemeState(liked.contains(card.getId()), saved.contains(card.getId()),
+                    card.getLikecount(), card.getSaveCount()));
+        }
+        return ResponseEntity.ok(states);
     }
 
-    @Transactional
-    public ResponseEntity<?> getAllSavedMemes(String username) {
-        Optional<userModel> optionalUser = userRepository.findByUsername(username);
-        if (optionalUser.isEmpty()) {
-            return ResponseEntity.badRequest().body("User not found");
+    // Most recently liked / saved first, keyset-paginated over the interaction edges
+    private ResponseEntity<?> getInteractionPage(String username, MemeInteraction.Kind kind, String after,
+            int limit) {
+        PageCursor cursor;
+        try {
+            cursor = PageCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         }
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
 
-        userModel user = optionalUser.get();
-        List<Meme> savedMemes = user.getSavedMemes();
-
-        return ResponseEntity.ok(savedMemes);
+        String userId = interactionService.userIdFor(username);
+        if (userId == null) {
+            return ResponseEntity.badRequest().body("User not found");
+        }
+        return ResponseEntity.ok(interactionService.page(userId, kind, cursor, pageSize));
     }
 
     @Transactional
     public Comments addCommentsToMeme(Comments comment) throws IOException, java.io.IOException {
-        System.out.println("Starting addCommentsToMeme()...");
-
-        Optional<Meme> optionalMeme = memeRepository.findById(comment.getMemeId());
+        MemeCard meme = redisService.getMemeCard(comment.getMemeId());
 
-        if (optionalMeme.isEmpty()) {
-            System.out.println("Meme not found with ID: " + comment.getMemeId());
+        if (meme == null) {
             throw new RuntimeException("Meme not found");
         }
 
-        Meme meme = optionalMeme.get();
-        System.out.println("Found meme with ID: " + meme.getId());
-
         // Save the new comment
         Comments savedComment = commentRepository.save(comment);
-        System.out.println("Saved comment with ID: " + savedComment.getId());
 
-        // Update meme's comment list
-        if (meme.getComments() == null) {
-            System.out.println("Meme has no existing comments. Initializing comment list...");
-            meme.setComments(new ArrayList<>());
-        }
-
-        meme.getComments().add(savedComment);
-        Meme updatedMeme = memeRepository.save(meme);
-        System.out.println("Updated meme with new comment. Meme ID: " + updatedMeme.getId());
+        // Append the comment reference in place instead of rewriting the (possibly cached) meme
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(meme.getId())),
+                new Update().push("comments", new DBRef("Comments", new ObjectId(savedComment.getId()))),
+                Meme.class);
+        log.debug("Added comment {} to meme {}", savedComment.getId(), meme.getId());
 
         // Update Redis cache
-        String redisKey = "AllMemes";
-        List<Meme> memeList = redisService.getList(redisKey, Meme.class);
-        System.out.println("Fetched meme list from Redis. List size: " + (memeList != null ? memeList.size() : 0));
-
-        if (memeList != null) {
-            for (int i = 0; i < memeList.size(); i++) {
-                if (memeList.get(i).getId().equals(updatedMeme.getId())) {
-                    memeList.set(i, updatedMeme);
-                    System.out.println("Updated meme in Redis list at index: " + i);
-                    break;
-                }
-            }
-            redisService.set(redisKey, memeList, 10, TimeUnit.MINUTES);
-            System.out.println("Updated Redis cache with modified meme list.");
-        }
+        redisService.incrementCachedMemeField(meme.getId(), "commentCount", 1);
+        hotRankingService.onComment(meme.getId());
 
         // --- WebSocket Broadcast Section ---
         ObjectNode messageNode = objectMapper.valueToTree(savedComment);
         messageNode.put("type", "COMMENT");
         String payload = objectMapper.writeValueAsString(messageNode);
         TextMessage message = new TextMessage(payload);
-        System.out.println("Constructed WebSocket message payload.");
 
         // 1. Broadcast to post viewers
         Set<WebSocketSession> viewers = WebSocketSessionManager.getPostSessions(meme.getId());
-        System.out.println("Broadcasting to " + viewers.size() + " post viewers...");
         for (WebSocketSession viewerSession : viewers) {
             if (viewerSession.isOpen()) {
                 viewerSession.sendMessage(message);
@@ -388,13 +530,9 @@ public class memeService {
         String ownerId = meme.getUserId();
         WebSocketSession ownerSession = WebSocketSessionManager.getSession(ownerId);
         if (ownerSession != null && ownerSession.isOpen()) {
-            System.out.println("Sending WebSocket message to post owner with user ID: " + ownerId);
             ownerSession.sendMessage(message);
-        } else {
-            System.out.println("Post owner WebSocket session not found or not open for user ID: " + ownerId);
         }
 
-        System.out.println("Finished addCommentsToMeme(). Returning saved comment.");
         return savedComment;
     }
 
@@ -437,11 +575,10 @@ public class memeService {
 
     @Transactional(rollbackFor = Exception.class)
     public ResponseEntity<?> deleteMeme(String memeId) throws Exception {
-        Optional<Meme> memeOptional = memeRepository.findById(memeId);
-        if (memeOptional.isEmpty()) {
+        MemeCard meme = redisService.getMemeCard(memeId);
+        if (meme == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Meme not found"));
         }
-        Meme meme = memeOptional.get();
 
         String imageUrl = meme.getMediaUrl(); // Store image URL for rollback
         boolean cloudinaryDeleted = false;
@@ -456,39 +593,30 @@ public class memeService {
                 }
             }
 
-            // Remove meme from uploader's meme list
-            userRepository.findById(meme.getUploader()).ifPresent(user -> {
-                user.getMemeList().removeIf(m -> m.getId().equals(memeId));
-                userRepository.save(user);
-            });
+            // Remove meme from uploader's meme list in place; a full save would drop fields userModel no longer maps
+            UpdateResult pulled = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(meme.getUserId())),
+                    new Update().pull("memeList", new DBRef("memes", new ObjectId(memeId))), userModel.class);
+            if (pulled.getModifiedCount() > 0) {
+                redisService.bumpVersion(redisService.profileVersionKey(meme.getUserId()));
+            }
 
             // Delete all comments related to this meme
             Query commentQuery = new Query(Criteria.where("memeId").is(memeId));
             mongoTemplate.remove(commentQuery, Comments.class);
 
             // Remove meme from all users' saved & liked lists
-            Query userQuery = new Query(new Criteria().orOperator(
-                    Criteria.where("savedMemes").is(memeId),
-                    Criteria.where("likedMemes").is(memeId)));
-            List<userModel> users = mongoTemplate.find(userQuery, userModel.class);
-            for (userModel user : users) {
-                user.getSavedMemes().removeIf(m -> m.getId().equals(memeId));
-                user.getLikedMemes().removeIf(m -> m.getId().equals(memeId));
-                userRepository.save(user);
+            for (String userId : interactionService.removeMeme(memeId)) {
+                redisService.bumpVersion(redisService.profileVersionKey(userId));
             }
 
             // Delete the meme itself
-            memeRepository.delete(meme);
-
-            // String key = "AllMemes";
-            // List<Meme> cashedMeme = redisService.getList(key, Meme.class);
-            // cashedMeme.removeIf(meme -> meme.getId().equals(memeId));
+            memeRepository.deleteById(memeId);
 
-            String redisKey = "AllMemes"; // Key to store memes by user
-            List<Meme> memeList = redisService.getList(redisKey, Meme.class);
-            memeList.removeIf(m -> m.getId().equals(memeId));
-            // memeList.add(meme);
-            redisService.set(redisKey, memeList, 10, TimeUnit.MINUTES);
+            feedIndexService.remove(memeId);
+            hotRankingService.remove(memeId);
+            timelineService.onDelete(meme.getUserId(), memeId);
+            redisService.evictMeme(memeId);
+            counterService.discard(memeId);
             log.info("✅ Meme '{}' removed and Redis cache updated", memeId);
 
             return ResponseEntity.ok(Map.of("message", "Meme deleted successfully"));
@@ -525,20 +653,20 @@ public class memeService {
     public ResponseEntity<?> addComments(Comments comment, String memeId) {
         comment.setCreatedAt(new Date());
 
-        // ✅ Find the meme by memeId
-        Optional<Meme> memeOptional = memeRepository.findById(memeId);
-        if (!memeOptional.isPresent()) {
+        // ✅ Check the meme exists through the card cache; loading the entity would resolve every comment
+        if (redisService.getMemeCard(memeId) == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Meme not found", null);
         }
 
-        Meme meme = memeOptional.get();
-
         // ✅ Save comment to the global comments collection
         Comments savedComment = commentRepository.save(comment);
 
-        // ✅ Add the comment to the meme's comment list
-        meme.getComments().add(savedComment);
-        memeRepository.save(meme);
+        // ✅ Append the comment reference in place; a full save would overwrite counters flushed meanwhile
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(memeId)),
+                new Update().push("comments", new DBRef("Comments", new ObjectId(savedComment.getId()))),
+                Meme.class);
+        redisService.incrementCachedMemeField(memeId, "commentCount", 1);
+        hotRankingService.onComment(memeId);
 
         return ResponseEntity.ok(savedComment);
     }
@@ -0,0 +1,56 @@
+package com.example.Meme.Website.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class PageCursorTest {
+
+    @Test
+    void roundTrips() {
+        String encoded = PageCursor.encode(1_700_000_000_123L, "65f1c2a9e4b0a1b2c3d4e5f6");
+
+        assertEquals(new PageCursor(1_700_000_000_123L, "65f1c2a9e4b0a1b2c3d4e5f6"), PageCursor.decode(encoded));
+    }
+
+    @Test
+    void keepsUnderscoresInTheId() {
+        // Only the first separator splits, so ids may contain it
+        assertEquals(new PageCursor(42L, "meme_with_underscores"),
+                PageCursor.decode(PageCursor.encode(42L, "meme_with_underscores")));
+    }
+
+    @Test
+    void isUrlSafe() {
+        String encoded = PageCursor.encode(Long.MAX_VALUE, "??>>~~");
+
+        assertEquals(-1, encoded.indexOf('+'));
+        assertEquals(-1, encoded.indexOf('/'));
+        assertEquals(-1, encoded.indexOf('='));
+    }
+
+    @Test
+    void treatsAMissingCursorAsTheFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode("   "));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encodeRaw("no-separator")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encodeRaw("_id-only")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encodeRaw("123_")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encodeRaw("yesterday_abc")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.Meme.Website.services;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 2-hop suggestions and incremental follows on a synthetic power-law graph.
+ * Out-degrees and like counts are Pareto distributed, and followees and memes
+ * are drawn with a skew towards low ids, so a few accounts collect most of the
+ * followers and a few memes most of the likes. That gives roughly 10 follows
+ * and 6 likes per user on average: about 9.5M follow and 5.5M like edges at
+ * 1M users.
+ *
+ * Pure CPU, no external services. The 1M-user graph needs about 2 GB of heap.
+ * Run through {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FollowGraphBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int users;
+
+    private FollowGraph graph;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new String[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = String.format("%024x", i); // same width as a Mongo ObjectId
+        }
+        int memes = users / 2;
+
+        FollowGraph.Builder builder = FollowGraph.builder();
+        for (int user = 0; user < users; user++) {
+            int outDegree = pareto(random, 5, 2.0, 5_000);
+            for (int i = 0; i < outDegree; i++) {
+                int followee = skewed(random, users, 3.0);
+                if (followee != user) {
+                    builder.addFollow(ids[user], ids[followee]);
+                }
+            }
+            int liked = pareto(random, 3, 2.0, 2_000);
+            for (int i = 0; i < liked; i++) {
+                builder.addLike(ids[user], "m" + skewed(random, memes, 2.0));
+            }
+        }
+        graph = builder.build();
+    }
+
+    // Pareto with the given minimum and shape, capped
+    private static int pareto(SplittableRandom random, int min, double shape, int cap) {
+        return (int) Math.min(cap, min / Math.pow(1 - random.nextDouble(), 1 / shape));
+    }
+
+    // Larger exponents crowd the draws into the first ids
+    private static int skewed(SplittableRandom random, int n, double exponent) {
+        return (int) (n * Math.pow(random.nextDouble(), exponent));
+    }
+
+    @Benchmark
+    public Object suggest() {
+        return graph.suggest(ids[ThreadLocalRandom.current().nextInt(users)], 20);
+    }
+
+    @Benchmark
+    public boolean followAndUnfollow() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String follower = ids[random.nextInt(users)];
+        String followee = ids[random.nextInt(users)];
+        return graph.follow(follower, followee) && graph.unfollow(follower, followee);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FollowGraphBenchmark.class.getSimpleName()).build()).run();
+    }
+}
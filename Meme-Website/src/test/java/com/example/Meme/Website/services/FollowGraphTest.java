@@ -0,0 +1,152 @@
+package com.example.Meme.Website.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.Meme.Website.services.FollowGraph.Suggestion;
+
+class FollowGraphTest {
+
+    @Test
+    void ranksFolloweesOfFolloweesByMutualFollows() {
+        FollowGraph graph = FollowGraph.builder()
+                .addFollow("alice", "bob")
+                .addFollow("alice", "carol")
+                .addFollow("bob", "dave")
+                .addFollow("carol", "dave")
+                .addFollow("bob", "erin")
+                .addFollow("bob", "carol") // alice already follows carol
+                .addFollow("carol", "alice") // never suggest the user to themselves
+                .build();
+
+        assertEquals(List.of(new Suggestion("dave", 2, 0), new Suggestion("erin", 1, 0)),
+                graph.suggest("alice", 10));
+    }
+
+    @Test
+    void countsSharedLikesButSkipsMemesEveryoneLiked() {
+        FollowGraph.Builder builder = FollowGraph.builder()
+                .addLike("alice", "m1")
+                .addLike("alice", "m2")
+                .addLike("frank", "m1")
+                .addLike("frank", "m2")
+                .addLike("gina", "m2")
+                .addLike("alice", "viral");
+        for (int i = 0; i <= FollowGraph.MAX_LIKERS_PER_MEME; i++) {
+            builder.addLike("fan" + i, "viral");
+        }
+        FollowGraph graph = builder.build();
+
+        assertEquals(List.of(new Suggestion("frank", 0, 2), new Suggestion("gina", 0, 1)),
+                graph.suggest("alice", 10));
+    }
+
+    @Test
+    void mutualFollowsOutweighSharedLikes() {
+        FollowGraph graph = FollowGraph.builder()
+                .addFollow("alice", "bob")
+                .addFollow("bob", "erin")
+                .addLike("alice", "m1")
+                .addLike("frank", "m1")
+                .build();
+
+        List<Suggestion> suggestions = graph.suggest("alice", 10);
+
+        assertEquals(List.of(new Suggestion("erin", 1, 0), new Suggestion("frank", 0, 1)), suggestions);
+        assertEquals(FollowGraph.MUTUAL_WEIGHT, suggestions.get(0).score());
+    }
+
+    @Test
+    void appliesFollowsAndUnfollows() {
+        FollowGraph graph = new FollowGraph();
+
+        assertTrue(graph.follow("alice", "bob"));
+        assertFalse(graph.follow("alice", "bob"));
+        graph.follow("bob", "carol");
+        assertEquals(List.of(new Suggestion("carol", 1, 0)), graph.suggest("alice", 10));
+
+        assertTrue(graph.unfollow("alice", "bob"));
+        assertFalse(graph.unfollow("alice", "bob"));
+        assertFalse(graph.unfollow("alice", "nobody"));
+        assertEquals(List.of(), graph.suggest("alice", 10));
+    }
+
+    @Test
+    void appliesLikesAndRemovedMemes() {
+        FollowGraph graph = new FollowGraph();
+        graph.like("alice", "m1", true);
+        graph.like("bob", "m1", true);
+        assertEquals(List.of(new Suggestion("bob", 0, 1)), graph.suggest("alice", 10));
+
+        graph.like("bob", "m1", false);
+        assertEquals(List.of(), graph.suggest("alice", 10));
+
+        graph.like("bob", "m1", true);
+        graph.removeMeme("m1");
+        assertEquals(List.of(), graph.suggest("alice", 10));
+        assertEquals(List.of(), graph.suggest("bob", 10));
+    }
+
+    @Test
+    void honoursTheLimitAndUnknownUsers() {
+        FollowGraph graph = FollowGraph.builder()
+                .addFollow("alice", "bob")
+                .addFollow("alice", "carol")
+                .addFollow("bob", "dave")
+                .addFollow("carol", "dave")
+                .addFollow("bob", "erin")
+                .build();
+
+        assertEquals(List.of(new Suggestion("dave", 2, 0)), graph.suggest("alice", 1));
+        assertEquals(List.of(), graph.suggest("alice", 0));
+        assertEquals(List.of(), graph.suggest("nobody", 5));
+        assertEquals(List.of(), graph.suggest("dave", 5));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        FollowGraph graph = new FollowGraph();
+        for (int i = 0; i < 10_000; i++) {
+            graph.follow("hub", "user" + i);
+            graph.like("user" + i, "meme" + i, true);
+        }
+        graph.follow("user0", "hub");
+
+        List<Suggestion> suggestions = graph.suggest("user0", 20);
+
+        assertEquals(10_001, graph.userCount());
+        assertEquals(20, suggestions.size());
+        assertTrue(suggestions.stream().allMatch(s -> s.mutualFollows() == 1 && s.sharedLikes() == 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void leavesATableHeldByAReaderUntouchedWhenItGrows() {
+        FollowGraph graph = new FollowGraph();
+        // alice, bob and user0..user13 fill the initial 16 slots
+        graph.follow("alice", "bob");
+        for (int i = 0; i < 14; i++) {
+            graph.follow("alice", "user" + i);
+        }
+        AtomicReferenceArray<int[]> before = (AtomicReferenceArray<int[]>) ReflectionTestUtils.getField(graph,
+                "following");
+        int[] aliceRow = before.get(0);
+
+        graph.follow("alice", "user14");
+
+        assertNotSame(before, ReflectionTestUtils.getField(graph, "following"));
+        assertSame(aliceRow, before.get(0));
+        assertEquals(15, aliceRow.length);
+        graph.follow("user14", "carol");
+        assertEquals(List.of(new Suggestion("carol", 1, 0)), graph.suggest("alice", 10));
+    }
+}
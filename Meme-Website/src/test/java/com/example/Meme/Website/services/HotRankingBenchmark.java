@@ -0,0 +1,109 @@
+package com.example.Meme.Website.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Cost of one hot-score update (the INCREMENT_SCORE script) and one page read
+ * against rankings of 10k, 100k and 1M memes. ZINCRBY is O(log n), so the
+ * per-update time should stay nearly flat as the set grows 100x.
+ *
+ * Needs a scratch Redis; it writes to its own keys only. Run with
+ * {@code -Dredis.host=... -Dredis.port=...} (defaults localhost:6379) through
+ * {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotRankingBenchmark {
+
+    private static final String RANKING_KEY = "bench:hot:memes";
+    private static final String EPOCH_KEY = "bench:hot:epoch";
+    private static final int BATCH = 10_000;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int memes;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private String tauMs;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        redis = new StringRedisTemplate(connectionFactory);
+        tauMs = String.valueOf(21_600_000 / Math.log(2));
+
+        redis.delete(List.of(RANKING_KEY, EPOCH_KEY));
+        redis.opsForValue().set(EPOCH_KEY, String.valueOf(System.currentTimeMillis()));
+
+        byte[] key = RANKING_KEY.getBytes(StandardCharsets.UTF_8);
+        for (int from = 0; from < memes; from += BATCH) {
+            int start = from;
+            int end = Math.min(memes, from + BATCH);
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = start; i < end; i++) {
+                    connection.zSetCommands().zAdd(key, random.nextDouble(0, 1000),
+                            member(i).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        redis.delete(List.of(RANKING_KEY, EPOCH_KEY));
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Long incrementScore() {
+        String member = member(ThreadLocalRandom.current().nextInt(memes));
+        return redis.execute(HotRankingService.INCREMENT_SCORE, List.of(RANKING_KEY, EPOCH_KEY), member, "1.0",
+                String.valueOf(System.currentTimeMillis()), tauMs, String.valueOf(Long.MAX_VALUE));
+    }
+
+    @Benchmark
+    public Object readPage() {
+        return redis.opsForZSet().reverseRange(RANKING_KEY, 0, 19);
+    }
+
+    private static String member(int i) {
+        return String.format("%024x", i); // same width as a Mongo ObjectId
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HotRankingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.Meme.Website.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.Meme.Website.Cache.CacheInvalidationBus;
+import com.example.Meme.Website.Security.ParsedToken;
+import com.example.Meme.Website.Security.VerifiedTokenCache;
+
+/**
+ * JWTService.parse together with the verified-token cache, with Redis and the
+ * invalidation bus mocked out.
+ */
+class JWTServiceRevocationTest {
+
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private CacheInvalidationBus bus;
+    private VerifiedTokenCache verifiedTokens;
+    private JWTService jwtService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        bus = mock(CacheInvalidationBus.class);
+
+        verifiedTokens = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokens, "stringRedisTemplate", redis);
+        ReflectionTestUtils.setField(verifiedTokens, "invalidationBus", bus);
+        ReflectionTestUtils.invokeMethod(verifiedTokens, "init");
+
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(keyBytes));
+        ReflectionTestUtils.setField(jwtService, "verifiedTokens", verifiedTokens);
+        jwtService.init();
+    }
+
+    @Test
+    void answersARepeatParseFromTheCache() {
+        String token = jwtService.generateToken("alice", 15, "access_token");
+
+        ParsedToken first = jwtService.parse(token);
+
+        assertNotNull(first);
+        assertEquals("alice", first.subject());
+        assertEquals("access_token", first.type());
+        assertSame(first, jwtService.parse(token));
+        // Redis is asked once, when the node first verifies the token
+        verify(redis, times(1)).hasKey(anyString());
+    }
+
+    @Test
+    void refusesARevokedToken() {
+        String token = jwtService.generateToken("alice", 15, "access_token");
+        jwtService.parse(token);
+
+        jwtService.revoke(token);
+
+        assertNull(jwtService.parse(token));
+        String digest = verifiedTokens.digest(token);
+        assertTrue(verifiedTokens.isRevoked(digest));
+        verify(values).set(eq(VerifiedTokenCache.REVOKED_KEY_PREFIX + digest), eq("1"), any(Duration.class));
+        verify(bus).publish(VerifiedTokenCache.REVOKED_KEY_PREFIX + digest);
+    }
+
+    @Test
+    void refusesATokenRevokedOnAnotherNode() {
+        String token = jwtService.generateToken("alice", 15, "access_token");
+        String digest = verifiedTokens.digest(token);
+        when(redis.hasKey(VerifiedTokenCache.REVOKED_KEY_PREFIX + digest)).thenReturn(true);
+
+        assertNull(jwtService.parse(token));
+        assertNull(jwtService.parse(token));
+        // Remembered locally after the first lookup
+        verify(redis, times(1)).hasKey(VerifiedTokenCache.REVOKED_KEY_PREFIX + digest);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dropsACachedTokenWhenARevocationIsAnnounced() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(bus).subscribe(eq(VerifiedTokenCache.REVOKED_KEY_PREFIX), listener.capture());
+        String token = jwtService.generateToken("alice", 15, "access_token");
+        assertNotNull(jwtService.parse(token));
+
+        listener.getValue().accept(VerifiedTokenCache.REVOKED_KEY_PREFIX + verifiedTokens.digest(token));
+
+        assertNull(jwtService.parse(token));
+    }
+
+    @Test
+    void refusesAndRechecksWhileRedisIsDown() {
+        String token = jwtService.generateToken("alice", 15, "access_token");
+        when(redis.hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertNull(jwtService.parse(token));
+        assertNull(verifiedTokens.get(verifiedTokens.digest(token)));
+
+        // Redis is back: the token is checked again rather than remembered either way
+        reset(redis);
+        assertNotNull(jwtService.parse(token));
+        verify(redis).hasKey(anyString());
+    }
+
+    @Test
+    void servesButNeverCachesUncheckedTokensWhenFailOpen() {
+        ReflectionTestUtils.setField(verifiedTokens, "failOpen", true);
+        String token = jwtService.generateToken("alice", 15, "access_token");
+        when(redis.hasKey(anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertNotNull(jwtService.parse(token));
+        assertNotNull(jwtService.parse(token));
+
+        assertNull(verifiedTokens.get(verifiedTokens.digest(token)));
+        verify(redis, times(2)).hasKey(anyString());
+    }
+
+    @Test
+    void returnsButNeverCachesAnExpiredToken() {
+        // Well past the parser's 60 s clock skew
+        String token = jwtService.generateToken("alice", -5, "access_token");
+
+        ParsedToken parsed = jwtService.parse(token);
+
+        assertNotNull(parsed);
+        assertTrue(parsed.isExpired());
+        assertNull(verifiedTokens.get(verifiedTokens.digest(token)));
+        verify(redis, never()).hasKey(anyString());
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        JWTService other = new JWTService();
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        ReflectionTestUtils.setField(other, "secretKey", Base64.getEncoder().encodeToString(keyBytes));
+        ReflectionTestUtils.setField(other, "verifiedTokens", verifiedTokens);
+        other.init();
+
+        assertNull(jwtService.parse(other.generateToken("alice", 15, "access_token")));
+        assertNull(jwtService.parse("not.a.jwt"));
+    }
+}
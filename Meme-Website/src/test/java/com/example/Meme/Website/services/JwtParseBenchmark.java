@@ -0,0 +1,126 @@
+package com.example.Meme.Website.services;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.Meme.Website.Security.ParsedToken;
+import com.example.Meme.Website.Security.VerifiedTokenCache;
+import com.example.Meme.Website.models.UserPrincipal;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request token work in JwtFilter for a valid access token. The legacy
+ * path is what the filter used to do: four signature checks (subject even if
+ * expired, subject and expiry for validateToken, then willExpireSoon), each
+ * decoding the secret and building a new parser. The current path is one
+ * JWTService.verify with the cached key and parser. The cached path is a
+ * repeat request, answered by JWTService.parse from the verified-token cache.
+ *
+ * Pure CPU, no external services. Run through {@link #main(String[])} from the
+ * test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private String secret;
+    private String token;
+    private JWTService jwtService;
+    private UserDetails user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        secret = Base64.getEncoder().encodeToString(keyBytes);
+
+        VerifiedTokenCache verifiedTokens = new VerifiedTokenCache();
+        ReflectionTestUtils.invokeMethod(verifiedTokens, "init");
+
+        jwtService = new JWTService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtService, "verifiedTokens", verifiedTokens);
+        jwtService.init();
+
+        token = jwtService.generateToken("benchmark-user", 15, "access_token");
+        verifiedTokens.put(verifiedTokens.digest(token), jwtService.verify(token));
+        user = new UserPrincipal("0", "benchmark-user", "");
+    }
+
+    @Benchmark
+    public void legacyPerRequest(Blackhole blackhole) {
+        String username;
+        try {
+            username = legacyClaims(token, true).getSubject();
+        } catch (ExpiredJwtException e) {
+            username = e.getClaims().getSubject();
+        }
+        boolean valid = legacyClaims(token, true).getSubject().equals(user.getUsername())
+                && !legacyClaims(token, true).getExpiration().before(new Date());
+        boolean expiresSoon = legacyClaims(token, false).getExpiration().getTime()
+                - System.currentTimeMillis() <= 5 * 60 * 1000L;
+        blackhole.consume(username);
+        blackhole.consume(valid);
+        blackhole.consume(expiresSoon);
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        ParsedToken parsed = jwtService.verify(token);
+        blackhole.consume(parsed.subject());
+        blackhole.consume(parsed.isValidFor(user));
+        blackhole.consume(parsed.expiresWithin(5));
+    }
+
+    @Benchmark
+    public void cachedHit(Blackhole blackhole) {
+        ParsedToken parsed = jwtService.parse(token);
+        blackhole.consume(parsed.subject());
+        blackhole.consume(parsed.isValidFor(user));
+        blackhole.consume(parsed.expiresWithin(5));
+    }
+
+    private Claims legacyClaims(String jwt, boolean withSkew) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        var builder = Jwts.parserBuilder().setSigningKey(key);
+        if (withSkew) {
+            builder.setAllowedClockSkewSeconds(60);
+        }
+        return builder.build().parseClaimsJws(jwt).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.Meme.Website.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Contended like throughput on a handful of hot memes: the per-event path
+ * (one INCREMENT script, i.e. HINCRBY + SADD, per like) against the striped
+ * tier (one LongAdder add per like; flushing is off the hot path and not
+ * measured). 16 threads hammer 1 or 8 memes.
+ *
+ * Needs a scratch Redis for the per-event case; it writes to its own keys only.
+ * Run with {@code -Dredis.host=... -Dredis.port=...} (defaults localhost:6379)
+ * through {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StripedCounterBenchmark {
+
+    private static final String KEY_PREFIX = "bench:counters:";
+    private static final String DIRTY_KEY = "bench:counters:dirty";
+
+    @Param({ "1", "8" })
+    private int hotMemes;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+    private StripedCounterService striped;
+    private List<String> memeIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        redis = new StringRedisTemplate(connectionFactory);
+
+        striped = new StripedCounterService(); // add() needs none of the injected collaborators
+        memeIds = new ArrayList<>();
+        for (int i = 0; i < hotMemes; i++) {
+            memeIds.add(String.format("%024x", i)); // same width as a Mongo ObjectId
+        }
+        cleanKeys();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cleanKeys();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Long perEventRedis() {
+        String memeId = pick();
+        return redis.execute(CounterService.INCREMENT, List.of(KEY_PREFIX + memeId, DIRTY_KEY),
+                memeId, "likecount", "1");
+    }
+
+    @Benchmark
+    public void stripedInProcess() {
+        striped.add(pick(), "likecount", 1);
+    }
+
+    private String pick() {
+        return memeIds.get(ThreadLocalRandom.current().nextInt(memeIds.size()));
+    }
+
+    private void cleanKeys() {
+        List<String> keys = new ArrayList<>();
+        keys.add(DIRTY_KEY);
+        memeIds.forEach(id -> keys.add(KEY_PREFIX + id));
+        redis.delete(keys);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StripedCounterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.Meme.Website.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class StripedCounterServiceTest {
+
+    private CounterService counterService;
+    private RedisService redisService;
+    private HotRankingService hotRankingService;
+    private StripedCounterService striped;
+
+    @BeforeEach
+    void setUp() {
+        counterService = mock(CounterService.class);
+        redisService = mock(RedisService.class);
+        hotRankingService = mock(HotRankingService.class);
+
+        striped = new StripedCounterService();
+        ReflectionTestUtils.setField(striped, "enabled", true);
+        ReflectionTestUtils.setField(striped, "counterService", counterService);
+        ReflectionTestUtils.setField(striped, "redisService", redisService);
+        ReflectionTestUtils.setField(striped, "hotRankingService", hotRankingService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, StripedCounterService.Cell> cells() {
+        return (Map<String, StripedCounterService.Cell>) ReflectionTestUtils.getField(striped, "cells");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StripedCounterService.Cell> retired() {
+        return (List<StripedCounterService.Cell>) ReflectionTestUtils.getField(striped, "retired");
+    }
+
+    @Test
+    void sendsTheSummedDeltaOncePerFlush() {
+        striped.add("m1", "likecount", 1);
+        striped.add("m1", "likecount", 1);
+        striped.add("m1", "likecount", -1);
+        striped.add("m1", "likecount", 1);
+        striped.add("m1", "saveCount", 1);
+        assertEquals(2, striped.pending("m1", "likecount"));
+
+        striped.flush();
+
+        verify(counterService).increment("m1", "likecount", 2);
+        verify(counterService).increment("m1", "saveCount", 1);
+        verify(redisService).incrementCachedMemeField("m1", "likecount", 2);
+        verify(hotRankingService).onLike("m1", 2);
+        verify(hotRankingService).onSave("m1", 1);
+        assertEquals(0, striped.pending("m1", "likecount"));
+
+        striped.flush();
+        verify(counterService, times(2)).increment(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void keepsTheDeltaWhenRedisFails() {
+        striped.add("m1", "likecount", 3);
+        doThrow(new IllegalStateException("connection refused"))
+                .when(counterService).increment("m1", "likecount", 3);
+
+        striped.flush();
+
+        assertEquals(3, striped.pending("m1", "likecount"));
+        verify(hotRankingService, never()).onLike(anyString(), anyInt());
+
+        doReturn(3L).when(counterService).increment("m1", "likecount", 3);
+        striped.flush();
+
+        assertEquals(0, striped.pending("m1", "likecount"));
+        verify(hotRankingService).onLike("m1", 3);
+    }
+
+    @Test
+    void evictsIdleCellsAndDrainsThemOnceMore() {
+        striped.add("m1", "likecount", 1);
+        striped.flush();
+
+        for (int i = 0; i < StripedCounterService.IDLE_FLUSHES_BEFORE_EVICTION - 1; i++) {
+            striped.flush();
+        }
+        assertTrue(cells().containsKey("m1:likecount"));
+
+        striped.flush();
+        assertFalse(cells().containsKey("m1:likecount"));
+        assertEquals(1, retired().size());
+
+        // An add that got hold of the cell just before it was evicted is not lost
+        retired().get(0).adder.add(5);
+        striped.flush();
+
+        verify(counterService).increment("m1", "likecount", 5);
+        assertTrue(retired().isEmpty());
+    }
+
+    @Test
+    void startsAFreshCellAfterEviction() {
+        striped.add("m1", "likecount", 1);
+        for (int i = 0; i <= StripedCounterService.IDLE_FLUSHES_BEFORE_EVICTION; i++) {
+            striped.flush();
+        }
+        assertFalse(cells().containsKey("m1:likecount"));
+
+        striped.add("m1", "likecount", 4);
+        assertEquals(4, striped.pending("m1", "likecount"));
+        striped.flush();
+
+        verify(counterService).increment("m1", "likecount", 4);
+    }
+
+    @Test
+    void drainsEverythingOnShutdown() {
+        striped.add("m1", "likecount", 2);
+        striped.add("m2", "saveCount", 1);
+
+        striped.flushOnShutdown();
+
+        verify(counterService).increment("m1", "likecount", 2);
+        verify(counterService).increment("m2", "saveCount", 1);
+        assertEquals(0, striped.pending("m1", "likecount"));
+        assertEquals(0, striped.pending("m2", "saveCount"));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(striped, "enabled", false);
+        striped.add("m1", "likecount", 1);
+
+        striped.flush();
+        striped.flushOnShutdown();
+
+        verifyNoInteractions(counterService, redisService, hotRankingService);
+    }
+}
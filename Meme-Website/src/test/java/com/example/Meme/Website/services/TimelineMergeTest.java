@@ -0,0 +1,61 @@
+package com.example.Meme.Website.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Meme.Website.dto.PageCursor;
+
+class TimelineMergeTest {
+
+    private static PageCursor entry(long timestamp, String id) {
+        return new PageCursor(timestamp, id);
+    }
+
+    @Test
+    void mergesRunsNewestFirst() {
+        List<PageCursor> pushed = List.of(entry(90, "a"), entry(50, "b"), entry(10, "c"));
+        List<PageCursor> celebrity = List.of(entry(80, "x"), entry(60, "y"));
+        List<PageCursor> other = List.of(entry(70, "z"));
+
+        assertEquals(List.of(entry(90, "a"), entry(80, "x"), entry(70, "z"), entry(60, "y"), entry(50, "b"),
+                entry(10, "c")), TimelineService.merge(List.of(pushed, celebrity, other), 10));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        List<PageCursor> first = List.of(entry(90, "a"), entry(70, "b"));
+        List<PageCursor> second = List.of(entry(80, "x"), entry(60, "y"));
+
+        assertEquals(List.of(entry(90, "a"), entry(80, "x"), entry(70, "b")),
+                TimelineService.merge(List.of(first, second), 3));
+    }
+
+    @Test
+    void keepsAMemeFoundInSeveralRunsOnce() {
+        // The same meme can sit in more than one source set
+        List<PageCursor> pushed = List.of(entry(90, "a"), entry(50, "b"));
+        List<PageCursor> author = List.of(entry(90, "a"), entry(40, "c"));
+
+        assertEquals(List.of(entry(90, "a"), entry(50, "b"), entry(40, "c")),
+                TimelineService.merge(List.of(pushed, author), 10));
+    }
+
+    @Test
+    void breaksTimestampTiesByIdDescending() {
+        List<PageCursor> first = List.of(entry(50, "a"));
+        List<PageCursor> second = List.of(entry(50, "c"));
+        List<PageCursor> third = List.of(entry(50, "b"));
+
+        assertEquals(List.of(entry(50, "c"), entry(50, "b"), entry(50, "a")),
+                TimelineService.merge(List.of(first, second, third), 10));
+    }
+
+    @Test
+    void handlesEmptyRuns() {
+        assertEquals(List.of(), TimelineService.merge(List.of(), 10));
+        assertEquals(List.of(entry(10, "a")), TimelineService.merge(List.of(List.of(), List.of(entry(10, "a"))), 10));
+    }
+}
@@ -195,7 +195,7 @@ export const MemeCard: React.FC<MemeCardProps> = ({ meme, activeOptionsId, onOpt
           <div className="flex items-center space-x-1">
             <div className="bg-gray-100 px-2 py-1 rounded-full flex items-center space-x-1">
               <MessageCircle className="w-4 h-4 text-gray-500" />
-              <span className="text-sm text-gray-600 font-medium">{meme.comments.length}</span>
+              <span className="text-sm text-gray-600 font-medium">{meme.commentCount}</span>
             </div>
             {isOwnProfile && (
               <div className="relative inline-block" data-meme-id={meme.id}>
@@ -1,6 +1,6 @@
 import type React from "react"
 import { useState, useRef, useEffect } from "react"
-import { useMemeStore } from "../../store/useMemeStore"
+import { useMemeStore, type ProfileList } from "../../store/useMemeStore"
 import { MemeCard } from "./MemeCard"
 import { toast } from "react-hot-toast"
 import {
@@ -83,6 +83,8 @@ export const ProfilePage: React.FC = () => {
     Followers,
     Following,
     handleFollowToggle,
+    profileCursors,
+    loadMoreProfileList,
   } = useMemeStore()
 
   const [activeTab, setActiveTab] = useState<TabType>("uploaded")
@@ -117,6 +119,30 @@ export const ProfilePage: React.FC = () => {
   const [isFollowersModalOpen, setIsFollowersModalOpen] = useState(false)
   const [followingLoading, setFollowingLoading] = useState(false)
   const [isFollowingModalOpen, setIsFollowingModalOpen] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
+
+  // Profile lists come in pages of 50; the next one is fetched on demand
+  const loadMore = async (list: ProfileList) => {
+    setLoadingMore(true)
+    try {
+      await loadMoreProfileList(list)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
+  const renderLoadMore = (list: ProfileList) =>
+    profileCursors[list] && (
+      <div className="flex justify-center mt-4">
+        <button
+          onClick={() => loadMore(list)}
+          disabled={loadingMore}
+          className="px-4 py-2 rounded-lg bg-blue-600 text-white text-sm hover:bg-blue-700 transition-colors disabled:opacity-70"
+        >
+          {loadingMore ? "Loading..." : "Load more"}
+        </button>
+      </div>
+    )
 
   useEffect(() => {
     if (userId) {
@@ -486,6 +512,7 @@ export const ProfilePage: React.FC = () => {
                 )}
               </div>
             )}
+            {!isLoading && renderLoadMore(activeTab === "uploaded" ? "memes" : activeTab)}
           </div>
         </div>
       </div>
@@ -725,32 +752,35 @@ export const ProfilePage: React.FC = () => {
                     <div className="animate-spin rounded-full h-8 w-8 border-b-2 border-blue-600"></div>
                   </div>
                 ) : filteredFollowers.length > 0 ? (
-                  <ul className="divide-y divide-gray-200">
-                    {filteredFollowers.map((follower) => (
-                      <li
-                        key={follower.userId}
-                        className="py-3 flex items-center hover:bg-gray-50 rounded-lg px-2 cursor-pointer"
-                        onClick={() => navigateToProfile(follower.userId)}
-                      >
-                        <div className="flex-shrink-0 h-10 w-10">
-                          {follower.profilePictureUrl ? (
-                            <img
-                              className="h-10 w-10 rounded-full object-cover"
-                              src={follower.profilePictureUrl || "/placeholder.svg"}
-                              alt={follower.userId}
-                            />
-                          ) : (
-                            <div className="h-10 w-10 rounded-full bg-blue-100 flex items-center justify-center text-blue-600 font-bold">
-                              {follower.username[0].toUpperCase()}
-                            </div>
-                          )}
-                        </div>
-                        <div className="ml-3 flex-1">
-                          <p className="text-sm font-medium text-gray-900">{follower.username}</p>
-                        </div>
-                      </li>
-                    ))}
-                  </ul>
+                  <>
+                    <ul className="divide-y divide-gray-200">
+                      {filteredFollowers.map((follower) => (
+                        <li
+                          key={follower.userId}
+                          className="py-3 flex items-center hover:bg-gray-50 rounded-lg px-2 cursor-pointer"
+                          onClick={() => navigateToProfile(follower.userId)}
+                        >
+                          <div className="flex-shrink-0 h-10 w-10">
+                            {follower.profilePictureUrl ? (
+                              <img
+                                className="h-10 w-10 rounded-full object-cover"
+                                src={follower.profilePictureUrl || "/placeholder.svg"}
+                                alt={follower.userId}
+                              />
+                            ) : (
+                              <div className="h-10 w-10 rounded-full bg-blue-100 flex items-center justify-center text-blue-600 font-bold">
+                                {follower.username[0].toUpperCase()}
+                              </div>
+                            )}
+                          </div>
+                          <div className="ml-3 flex-1">
+                            <p className="text-sm font-medium text-gray-900">{follower.username}</p>
+                          </div>
+                        </li>
+                      ))}
+                    </ul>
+                    {renderLoadMore("followers")}
+                  </>
                 ) : (
                   <div className="text-center py-8 text-gray-500">
                     {searchTerm ? "No followers match your search" : "No followers yet"}
@@ -796,32 +826,35 @@ export const ProfilePage: React.FC = () => {
                     <div className="animate-spin rounded-full h-8 w-8 border-b-2 border-blue-600"></div>
                   </div>
                 ) : filteredFollowing.length > 0 ? (
-                  <ul className="divide-y divide-gray-200">
-                    {filteredFollowing.map((following) => (
-                      <li
-                        key={following.userId}
-                        className="py-3 flex items-center hover:bg-gray-50 rounded-lg px-2 cursor-pointer"
-                        onClick={() => navigateToProfile(following.userId)}
-                      >
-                        <div className="flex-shrink-0 h-10 w-10">
-                          {following.profilePictureUrl ? (
-                            <img
-                              className="h-10 w-10 rounded-full object-cover"
-                              src={following.profilePictureUrl || "/placeholder.svg"}
-                              alt={following.userId}
-                            />
-                          ) : (
-                            <div className="h-10 w-10 rounded-full bg-blue-100 flex items-center justify-center text-blue-600 font-bold">
-                              {following.username[0].toUpperCase()}
-                            </div>
-                          )}
-                        </div>
-                        <div className="ml-3 flex-1">
-                          <p className="text-sm font-medium text-gray-900">{following.username}</p>
-                        </div>
-                      </li>
-                    ))}
-                  </ul>
+                  <>
+                    <ul className="divide-y divide-gray-200">
+                      {filteredFollowing.map((following) => (
+                        <li
+                          key={following.userId}
+                          className="py-3 flex items-center hover:bg-gray-50 rounded-lg px-2 cursor-pointer"
+                          onClick={() => navigateToProfile(following.userId)}
+                        >
+                          <div className="flex-shrink-0 h-10 w-10">
+                            {following.profilePictureUrl ? (
+                              <img
+                                className="h-10 w-10 rounded-full object-cover"
+                                src={following.profilePictureUrl || "/placeholder.svg"}
+                                alt={following.userId}
+                              />
+                            ) : (
+                              <div className="h-10 w-10 rounded-full bg-blue-100 flex items-center justify-center text-blue-600 font-bold">
+                                {following.username[0].toUpperCase()}
+                              </div>
+                            )}
+                          </div>
+                          <div className="ml-3 flex-1">
+                            <p className="text-sm font-medium text-gray-900">{following.username}</p>
+                          </div>
+                        </li>
+                      ))}
+                    </ul>
+                    {renderLoadMore("following")}
+                  </>
                 ) : (
                   <div className="text-center py-8 text-gray-500">
                     {searchTerm ? "No users match your search" : "Not following anyone yet"}
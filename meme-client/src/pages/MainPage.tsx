@@ -15,6 +15,8 @@ export const MainPage: React.FC = () => {
   const {
     memes,
     fetchMemes,
+    feedCursor,
+    loadMoreMemes,
     searchMemes,
     isLoading,
     error,
@@ -25,6 +27,7 @@ export const MainPage: React.FC = () => {
   const [searchQuery, setSearchQuery] = useState("")
   const [mobileMenuOpen, setMobileMenuOpen] = useState(false)
   const [isSearchActive, setIsSearchActive] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   useEffect(() => {
     useWebSocketStore.getState().restoreConnection();
@@ -62,6 +65,16 @@ export const MainPage: React.FC = () => {
     setIsSearchActive(false)
   }
 
+  // The feed comes in pages of 20; the next one is fetched on demand
+  const handleLoadMore = async () => {
+    setLoadingMore(true)
+    try {
+      await loadMoreMemes()
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleProfileNavigation = async () => {
     try {
       await fetchUserProfile(user.userId)
@@ -220,6 +233,17 @@ export const MainPage: React.FC = () => {
                 <p className="text-gray-500 text-lg">No memes found</p>
               </div>
             )}
+            {feedCursor && !isSearchActive && (
+              <div className="col-span-full flex justify-center mt-2">
+                <button
+                  onClick={handleLoadMore}
+                  disabled={loadingMore}
+                  className="px-4 py-2 rounded-lg bg-blue-600 text-white text-sm hover:bg-blue-700 transition-colors disabled:opacity-70"
+                >
+                  {loadingMore ? "Loading..." : "Load more"}
+                </button>
+              </div>
+            )}
           </div>
         )}
       </main>
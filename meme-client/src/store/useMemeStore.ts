@@ -9,6 +9,7 @@ import type {
   Following,
   ApiFollowers,
   ApiFollowing,
+  MemeState,
 } from "../types/mems";
 import type { AxiosProgressEvent } from "axios";
 
@@ -17,6 +18,18 @@ let currentMemeId: string | null = null;
 let reconnectTimeout: NodeJS.Timeout | null = null;
 let lastJoinedPostId: string | null = null;
 
+export type ProfileList = "memes" | "liked" | "saved" | "followers" | "following";
+
+const FEED_PAGE_SIZE = 20;
+
+const noProfileCursors: Record<ProfileList, string | null> = {
+  memes: null,
+  liked: null,
+  saved: null,
+  followers: null,
+  following: null,
+};
+
 interface MemeStore {
   isFollowing?: boolean;
   memes: Meme[];
@@ -37,12 +50,20 @@ interface MemeStore {
   searchQuery: string;
   userCreated: Date;
   fetchMemes: () => Promise<void>;
+  // Cursor of the next home feed page, null once the feed is fully loaded or a search is shown
+  feedCursor: string | null;
+  loadMoreMemes: () => Promise<void>;
   searchMemes: (query: string) => Promise<void>;
   fetchMemeById: (id: string) => Promise<Meme | null>;
   fetchUserMemes: (username: string) => Promise<void>;
   fetchLikedMemes: (username: string) => Promise<void>;
+  fetchMemeStates: (memes: Meme[]) => Promise<void>;
   fetchSavedMemes: (username: string) => Promise<void>;
   fetchUserProfile: (userId: string) => Promise<void>;
+  profileUserId: string | null;
+  // Cursor of the next page of each profile list, null once it is fully loaded
+  profileCursors: Record<ProfileList, string | null>;
+  loadMoreProfileList: (list: ProfileList) => Promise<void>;
   toggleLike: (id: string, username: string) => Promise<void>;
   toggleSave: (id: string, username: string) => Promise<void>;
   setPage: (page: "home" | "profile") => void;
@@ -82,6 +103,7 @@ const mapApiMemeToMeme = (apiMeme: ApiMeme): Meme => ({
   uploadedBy: apiMeme.uploadedby,
   uploadDate: new Date(),
   comments: apiMeme.comments || [],
+  commentCount: apiMeme.commentCount ?? apiMeme.comments?.length ?? 0,
   likeCount: apiMeme.likecount,
   saveCount: apiMeme.saveCount,
   uploader: apiMeme.uploader,
@@ -90,6 +112,40 @@ const mapApiMemeToMeme = (apiMeme: ApiMeme): Meme => ({
   userId: apiMeme.userId,
 });
 
+// The home feed and profile lists arrive as keyset pages; nextCursor is only set while hasMore
+type Page<T> = { items: T[]; nextCursor: string | null; hasMore: boolean };
+
+const mapToMeme = (memes: ApiMeme[]): Meme[] =>
+  memes.map((meme) => ({
+    id: meme.id,
+    url: meme.mediaUrl,
+    title: meme.caption,
+    uploader: meme.uploader,
+    likeCount: meme.likecount,
+    saveCount: meme.saveCount,
+    createdAt: meme.memeCreated ? new Date(meme.memeCreated) : new Date(),
+    comments: meme.comments || [],
+    commentCount: meme.commentCount ?? meme.comments?.length ?? 0,
+    profilePictureUrl: meme.profilePictureUrl,
+    userId: meme.userId,
+  }));
+
+const mapToFollowers = (followers: ApiFollowers[]): Followers[] =>
+  followers.map((follower) => ({
+    userId: follower.userId,
+    username: follower.username || "",
+    profilePictureUrl: follower.profilePictureUrl || "",
+    isFollow: follower.isFollow,
+  }));
+
+const mapToFollowing = (following: ApiFollowing[]): Following[] =>
+  following.map((followingUser) => ({
+    userId: followingUser.userId,
+    username: followingUser.username || "",
+    profilePictureUrl: followingUser.profilePictureUrl || "",
+    isFollow: followingUser.isFollow,
+  }));
+
 const getUserFromLocalStorage = (): {
   userId: string;
   username: string;
@@ -144,6 +200,9 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
   profilePictureUrl: "",
   userName: "",
   userCreated: new Date(),
+  profileUserId: null,
+  profileCursors: noProfileCursors,
+  feedCursor: null,
   wsClient: null,
 
   connectWebSocket: () => {
@@ -184,6 +243,7 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
                   ? {
                       ...meme,
                       comments: [...(meme.comments || []), newComment],
+                      commentCount: (meme.commentCount ?? 0) + 1,
                     }
                   : meme
               );
@@ -338,6 +398,7 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
       set({
         memes: Array.isArray(memes) ? memes.map(mapApiMemeToMeme) : [],
         searchQuery: query,
+        feedCursor: null,
       });
     } catch (error) {
       set({
@@ -350,19 +411,23 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
     }
   },
 
+  // First page of the home feed; the rest is fetched on demand by loadMoreMemes
   fetchMemes: async () => {
     set({ isLoading: true, error: null });
     try {
-      const response = await api.get<ApiMeme[]>("/memes");
-      const memes = response.data || [];
+      const response = await api.get<Page<ApiMeme>>(`/memes/feed?limit=${FEED_PAGE_SIZE}`);
+      const mapped = (response.data?.items || []).map(mapApiMemeToMeme);
 
       set({
-        memes: Array.isArray(memes) ? memes.map(mapApiMemeToMeme) : [],
+        memes: mapped,
+        feedCursor: response.data?.hasMore ? response.data.nextCursor : null,
       });
+      await get().fetchMemeStates(mapped);
     } catch (error) {
       set({
         error: "Failed to fetch memes",
         memes: [],
+        feedCursor: null,
       });
       console.error("Error fetching memes:", error);
     } finally {
@@ -370,6 +435,29 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
     }
   },
 
+  // Appends the next feed page and fetches the like / save state of that page only
+  loadMoreMemes: async () => {
+    const cursor = get().feedCursor;
+    if (!cursor) return;
+
+    try {
+      const response = await api.get<Page<ApiMeme>>(
+        `/memes/feed?limit=${FEED_PAGE_SIZE}&after=${encodeURIComponent(cursor)}`
+      );
+      // A search or a reload replaced the feed while the page was loading
+      if (get().feedCursor !== cursor) return;
+
+      const mapped = (response.data?.items || []).map(mapApiMemeToMeme);
+      set((state) => ({
+        memes: [...state.memes, ...mapped],
+        feedCursor: response.data?.hasMore ? response.data.nextCursor : null,
+      }));
+      await get().fetchMemeStates(mapped);
+    } catch (error) {
+      console.error("Error loading more memes:", error);
+    }
+  },
+
   fetchMemeById: async (id: string) => {
     set({ isLoading: true, error: null });
     try {
@@ -385,6 +473,7 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
         const mappedMeme = {
           ...mapApiMemeToMeme(meme),
           comments: comments,
+          commentCount: comments.length,
         };
 
         return mappedMeme;
@@ -421,11 +510,54 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
     }
   },
 
+  // Like / save state of one fetched page; a feed page is well under the server's 100-id limit
+  fetchMemeStates: async (memes: Meme[]) => {
+    const { username } = getUserFromLocalStorage();
+    if (!username || memes.length === 0) return;
+
+    try {
+      const response = await api.post<Record<string, MemeState>>(
+        `/memes/state?username=${encodeURIComponent(username)}`,
+        memes.map((meme) => meme.id)
+      );
+      const states = response.data || {};
+
+      set((state) => {
+        const withCounts = (meme: Meme): Meme =>
+          states[meme.id]
+            ? {
+                ...meme,
+                likeCount: states[meme.id].likeCount,
+                saveCount: states[meme.id].saveCount,
+              }
+            : meme;
+        const checked = new Set(Object.keys(states));
+        const onPage = memes.filter((meme) => checked.has(meme.id)).map(withCounts);
+
+        return {
+          memes: state.memes.map(withCounts),
+          likedMemes: [
+            ...state.likedMemes.filter((meme) => !checked.has(meme.id)),
+            ...onPage.filter((meme) => states[meme.id].liked),
+          ],
+          savedMemes: [
+            ...state.savedMemes.filter((meme) => !checked.has(meme.id)),
+            ...onPage.filter((meme) => states[meme.id].saved),
+          ],
+        };
+      });
+    } catch (error) {
+      console.error("Error fetching meme states:", error);
+    }
+  },
+
   fetchLikedMemes: async (username: string) => {
     set({ isLoading: true, error: null });
     try {
-      const response = await api.get<ApiMeme[]>(`/memes/liked/${username}`);
-      const memes = response.data || [];
+      const response = await api.get<{ items: ApiMeme[]; nextCursor: string | null; hasMore: boolean }>(
+        `/memes/liked/${username}?limit=50`
+      );
+      const memes = response.data?.items || [];
 
       set({
         likedMemes: Array.isArray(memes) ? memes.map(mapApiMemeToMeme) : [],
@@ -444,8 +576,10 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
   fetchSavedMemes: async (username: string) => {
     set({ isLoading: true, error: null });
     try {
-      const response = await api.get<ApiMeme[]>(`/memes/saved/${username}`);
-      const memes = response.data || [];
+      const response = await api.get<{ items: ApiMeme[]; nextCursor: string | null; hasMore: boolean }>(
+        `/memes/saved/${username}?limit=50`
+      );
+      const memes = response.data?.items || [];
 
       set({
         savedMemes: Array.isArray(memes) ? memes.map(mapApiMemeToMeme) : [],
@@ -465,51 +599,32 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
     set({ isLoading: true, error: null });
 
     try {
-      const response = await api.get<{
-        profilePictureUrl: string;
-        savedMemes: ApiMeme[];
-        followers: Followers[];
-        memeList: ApiMeme[];
-        likedMemes: ApiMeme[];
-        following: Following[];
-        followersCount: number;
-        followingCount: number;
-        username: string;
-        userId: string;
-        userCreated: string;
-      }>(`/profile/${userId}`);
-
-      const data = response.data;
-
-      const mapToMeme = (memes: ApiMeme[]): Meme[] =>
-        memes.map((meme) => ({
-          id: meme.id,
-          url: meme.mediaUrl,
-          title: meme.caption,
-          uploader: meme.uploader,
-          likeCount: meme.likecount,
-          saveCount: meme.saveCount,
-          createdAt: meme.memeCreated ? new Date(meme.memeCreated) : new Date(),
-          comments: meme.comments || [],
-          profilePictureUrl: meme.profilePictureUrl,
-          userId: meme.userId,
-        }));
-
-      const mapToFollowers = (followers: ApiFollowers[]): Followers[] =>
-        followers.map((follower) => ({
-          userId: follower.userId,
-          username: follower.username || "",
-          profilePictureUrl: follower.profilePictureUrl || "",
-          isFollow: follower.isFollow,
-        }));
-
-      const mapToFollowing = (following: ApiFollowing[]): Following[] =>
-        following.map((followingUser) => ({
-          userId: followingUser.userId,
-          username: followingUser.username || "",
-          profilePictureUrl: followingUser.profilePictureUrl || "",
-          isFollow: followingUser.isFollow,
-        }));
+      // Header plus the first page of each list; every list is its own paginated resource
+      const [header, memePage, likedPage, savedPage, followersPage, followingPage] =
+        await Promise.all([
+          api.get<{
+            profilePictureUrl: string;
+            followersCount: number;
+            followingCount: number;
+            username: string;
+            userId: string;
+            userCreated: string;
+          }>(`/profile/${userId}`),
+          api.get<Page<ApiMeme>>(`/profile/${userId}/memes?limit=50`),
+          api.get<Page<ApiMeme>>(`/profile/${userId}/liked?limit=50`),
+          api.get<Page<ApiMeme>>(`/profile/${userId}/saved?limit=50`),
+          api.get<Page<ApiFollowers>>(`/profile/${userId}/followers?limit=50`),
+          api.get<Page<ApiFollowing>>(`/profile/${userId}/following?limit=50`),
+        ]);
+
+      const data = {
+        ...header.data,
+        memeList: memePage.data?.items || [],
+        likedMemes: likedPage.data?.items || [],
+        savedMemes: savedPage.data?.items || [],
+        followers: followersPage.data?.items || [],
+        following: followingPage.data?.items || [],
+      };
 
       const mapToUser = (userData: {
         userId: string;
@@ -550,10 +665,19 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
         userMemes,
         likedMemes,
         savedMemes,
+        profileUserId: userId,
+        profileCursors: {
+          memes: memePage.data?.hasMore ? memePage.data.nextCursor : null,
+          liked: likedPage.data?.hasMore ? likedPage.data.nextCursor : null,
+          saved: savedPage.data?.hasMore ? savedPage.data.nextCursor : null,
+          followers: followersPage.data?.hasMore ? followersPage.data.nextCursor : null,
+          following: followingPage.data?.hasMore ? followingPage.data.nextCursor : null,
+        },
       });
     } catch (error) {
       set({
         error: "Failed to fetch user data",
+        profileCursors: noProfileCursors,
         userMemes: [],
         likedMemes: [],
         savedMemes: [],
@@ -564,6 +688,41 @@ export const useMemeStore = create<MemeStore>((set, get) => ({
     }
   },
 
+  // Appends the next page of one profile list; a no-op once the list is complete
+  loadMoreProfileList: async (list: ProfileList) => {
+    const { profileUserId, profileCursors } = get();
+    const cursor = profileCursors[list];
+    if (!profileUserId || !cursor) return;
+
+    try {
+      const response = await api.get<Page<ApiMeme | ApiFollowers | ApiFollowing>>(
+        `/profile/${profileUserId}/${list}?limit=50&after=${encodeURIComponent(cursor)}`
+      );
+      // Another profile was opened while the page was loading
+      if (get().profileUserId !== profileUserId) return;
+
+      const items = response.data?.items || [];
+      const nextCursor = response.data?.hasMore ? response.data.nextCursor : null;
+      set((state) => {
+        const profileCursors = { ...state.profileCursors, [list]: nextCursor };
+        switch (list) {
+          case "followers":
+            return { profileCursors, Followers: [...state.Followers, ...mapToFollowers(items as ApiFollowers[])] };
+          case "following":
+            return { profileCursors, Following: [...state.Following, ...mapToFollowing(items as ApiFollowing[])] };
+          case "memes":
+            return { profileCursors, userMemes: [...state.userMemes, ...mapToMeme(items as ApiMeme[])] };
+          case "liked":
+            return { profileCursors, likedMemes: [...state.likedMemes, ...mapToMeme(items as ApiMeme[])] };
+          case "saved":
+            return { profileCursors, savedMemes: [...state.savedMemes, ...mapToMeme(items as ApiMeme[])] };
+        }
+      });
+    } catch (error) {
+      console.error(`Error loading more ${list}:`, error);
+    }
+  },
+
   uploadMeme: async (file: File, title: string, profilePictureUrl: string) => {
     const user = getUserFromLocalStorage();
     set({ uploadProgress: 0, error: null });
@@ -34,6 +34,7 @@ export interface Meme {
   uploadDate?: Date;
   memeCreated?: Date;
   comments: Comment[];
+  commentCount: number;
   likeCount: number;
   saveCount: number;
   uploader: string;
@@ -60,6 +61,7 @@ export interface ApiMeme {
   memeCreated?: Date;
   createdAt?: Date;
   comments?: Comment[];
+  commentCount?: number;
   likecount: number;
   saveCount: number;
   uploader: string;
@@ -86,6 +88,13 @@ export interface ApiSave {
   userId: string;
 }
 
+export interface MemeState {
+  liked: boolean;
+  saved: boolean;
+  likeCount: number;
+  saveCount: number;
+}
+
 
 export interface ApiFollowers{
   userId : string;